@@ -0,0 +1,52 @@
+package io.crunch.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * The garbage collection statistics of a JVM run, read from its unified GC log ({@code -Xlog:gc}).
+ *
+ * @param pauses       the number of stop-the-world pauses.
+ * @param pauseMillis  the total duration of the pauses in milliseconds.
+ * @param peakHeapMb   the largest heap occupancy seen before a pause, in megabytes.
+ */
+public record GcStats(int pauses, double pauseMillis, long peakHeapMb) {
+
+    /** Matches the heap occupancy and the duration of a pause, e.g. {@code Pause Young (Normal) (G1 Evacuation Pause) 24M->3M(256M) 2.345ms}. */
+    private static final Pattern PAUSE = Pattern.compile("Pause.* (\\d+)([KMG])->(\\d+)([KMG])\\((\\d+)([KMG])\\) (\\d+(?:\\.\\d+)?)ms");
+
+    /**
+     * Parses the given GC log.
+     *
+     * @param gcLog the log written with {@code -Xlog:gc:file=<gcLog>}.
+     * @return the statistics of the pauses in the log; all zero if the log does not exist.
+     * @throws IOException if the log cannot be read.
+     */
+    public static GcStats parse(Path gcLog) throws IOException {
+        if (!Files.exists(gcLog)) {
+            return new GcStats(0, 0, 0);
+        }
+        int pauses = 0;
+        double pauseMillis = 0;
+        long peakHeapMb = 0;
+        for (var line : Files.readAllLines(gcLog)) {
+            var matcher = PAUSE.matcher(line);
+            if (matcher.find()) {
+                pauses++;
+                pauseMillis += Double.parseDouble(matcher.group(7));
+                peakHeapMb = Math.max(peakHeapMb, toMb(Long.parseLong(matcher.group(1)), matcher.group(2)));
+            }
+        }
+        return new GcStats(pauses, pauseMillis, peakHeapMb);
+    }
+
+    private static long toMb(long size, String unit) {
+        return switch (unit) {
+            case "K" -> size / 1024;
+            case "G" -> size * 1024;
+            default -> size;
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package io.crunch.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+
+/**
+ * A {@link PreparedStatement} that ignores every call, to measure the cost of binding parameters without a database.
+ */
+public final class NoOpPreparedStatement {
+
+    private NoOpPreparedStatement() {
+    }
+
+    public static PreparedStatement create() {
+        return (PreparedStatement) Proxy.newProxyInstance(NoOpPreparedStatement.class.getClassLoader(),
+            new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                var type = method.getReturnType();
+                if (type == boolean.class) {
+                    return false;
+                }
+                if (type == int.class) {
+                    return 0;
+                }
+                if (type == long.class) {
+                    return 0L;
+                }
+                return null;
+            });
+    }
+}
@@ -0,0 +1,120 @@
+package io.crunch.benchmark;
+
+import io.crunch.template.ParameterBinder;
+import io.crunch.template.SqlTemplates;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.jdbc.DefaultJdbcPrepareStatementStrategy;
+import org.apache.camel.component.jdbc.JdbcPrepareStatementStrategy;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binding a transformed row to the target prepared statement with the {@link ParameterBinder} of the template
+ * against the header based parameter binding of the Camel {@code jdbc} component, which the routes used before.
+ *
+ * <p>The row is bound to a {@link PreparedStatement} that ignores every call, so only the cost of resolving and
+ * converting the parameter values is measured. The {@link ParameterBinder} reads the values of a hash map by name,
+ * and the values of a typed row, as streamed with {@code app.archive.typed-rows}, by index. As in the routes,
+ * the archiving time and year are not in the row: the {@link ParameterBinder} binds them once to the statement,
+ * while the {@code jdbc} component reads them from the headers with every row.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterBindingBenchmark {
+
+    private static final int YEAR = 2024;
+
+    /** The target template of the row: {@code applicant} or {@code applicant-message}. */
+    @Param({"applicant", "applicant-message"})
+    String table;
+
+    /** The representation of the row: {@code map} or {@code typed}. */
+    @Param({"map", "typed"})
+    String rows;
+
+    private DefaultCamelContext context;
+
+    private PreparedStatement statement;
+
+    private ParameterBinder binder;
+
+    private Map<String, Object> row;
+
+    private JdbcPrepareStatementStrategy strategy;
+
+    private String camelSql;
+
+    private int expectedParameters;
+
+    private Exchange exchange;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, URISyntaxException, SQLException {
+        var templates = new SqlTemplates("templates");
+        var template = templates.getTemplate(YEAR, table + "-target-query.sql");
+        var constants = "applicant".equals(table)
+            ? Map.<String, Object>of("year", YEAR, "archiving_time", LocalDateTime.now())
+            : Map.<String, Object>of("year", YEAR, "app_year", YEAR, "archiving_time", LocalDateTime.now());
+        binder = template.binder().withConstants(constants.keySet());
+        row = "applicant".equals(table) ? Rows.applicants(1).getFirst() : Rows.applicantMessages(1).getFirst();
+        if ("typed".equals(rows)) {
+            row = Rows.typed(List.of(row), template.parameters().stream().filter(name -> !constants.containsKey(name)).toList()).getFirst();
+        }
+        statement = NoOpPreparedStatement.create();
+        binder.bindConstants(statement, constants);
+
+        context = new DefaultCamelContext();
+        strategy = new DefaultJdbcPrepareStatementStrategy();
+        camelSql = strategy.prepareQuery(template.sql(), true);
+        expectedParameters = template.parameters().size();
+        exchange = new DefaultExchange(context);
+        var headers = new HashMap<String, Object>(row);
+        headers.putAll(constants);
+        exchange.getIn().setHeaders(headers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public PreparedStatement parameterBinder() throws SQLException {
+        binder.bind(statement, row);
+        return statement;
+    }
+
+    @Benchmark
+    public PreparedStatement camelHeaders() throws SQLException {
+        var iterator = strategy.createPopulateIterator(camelSql, camelSql, expectedParameters, exchange, null);
+        strategy.populateStatement(statement, iterator, expectedParameters);
+        return statement;
+    }
+}
@@ -0,0 +1,125 @@
+package io.crunch.benchmark;
+
+import io.crunch.lookup.LookupTable;
+import io.crunch.row.RowSchema;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic rows shaped like the result of the source queries of the archive routes.
+ */
+public final class Rows {
+
+    private static final String[] UNIVERSITIES = {"MIT", "TUM"};
+
+    private static final String[] DEPARTMENTS = {"ARCH", "CS", "EE"};
+
+    private Rows() {
+    }
+
+    /**
+     * Returns the given rows as typed rows of a shared schema, with the additional columns set to {@code null}.
+     *
+     * @param rows         the rows of the same columns.
+     * @param addedColumns the columns added to the rows by the transformation.
+     */
+    public static List<Map<String, Object>> typed(List<Map<String, Object>> rows, List<String> addedColumns) {
+        var schema = RowSchema.of(List.copyOf(rows.getFirst().keySet()), addedColumns);
+        var typed = new ArrayList<Map<String, Object>>(rows.size());
+        for (var row : rows) {
+            var typedRow = schema.newRow();
+            typedRow.putAll(row);
+            typed.add(typedRow);
+        }
+        return typed;
+    }
+
+    /**
+     * Returns the university and the department lookup tables of the ids of the fact rows, in this order.
+     */
+    public static List<LookupTable> lookupTables() {
+        return List.of(lookupTable(UNIVERSITIES), lookupTable(DEPARTMENTS));
+    }
+
+    private static LookupTable lookupTable(String[] codes) {
+        var ids = new long[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            ids[i] = i + 1;
+        }
+        return LookupTable.of(ids, codes);
+    }
+
+    /**
+     * Returns the given rows as read by the fact query of their table, with the ids of the university and department
+     * of the {@linkplain #lookupTables() lookup tables} in place of their codes.
+     *
+     * @param rows the rows of a source query joining the university and department codes.
+     */
+    public static List<Map<String, Object>> facts(List<Map<String, Object>> rows) {
+        var facts = new ArrayList<Map<String, Object>>(rows.size());
+        for (var row : rows) {
+            var fact = new LinkedHashMap<String, Object>();
+            row.forEach((column, value) -> {
+                switch (column) {
+                    case "u_code" -> fact.put("u_id", (long) List.of(UNIVERSITIES).indexOf(value) + 1);
+                    case "d_code" -> fact.put("d_id", (long) List.of(DEPARTMENTS).indexOf(value) + 1);
+                    default -> fact.put(column, value);
+                }
+            });
+            facts.add(fact);
+        }
+        return facts;
+    }
+
+    /**
+     * Returns rows shaped like the result of {@code applicant-source-query.sql}.
+     */
+    public static List<Map<String, Object>> applicants(int count) {
+        var rows = new ArrayList<Map<String, Object>>(count);
+        var created = Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 8, 0));
+        for (int i = 1; i <= count; i++) {
+            var row = new LinkedHashMap<String, Object>();
+            row.put("id", (long) i);
+            row.put("d_code", DEPARTMENTS[i % DEPARTMENTS.length]);
+            row.put("u_code", UNIVERSITIES[i % UNIVERSITIES.length]);
+            row.put("applicant_id", String.valueOf(2300000 + i));
+            row.put("email", "applicant" + i + "@fake.com");
+            row.put("first_name", "First" + i);
+            row.put("last_name", "Last" + i);
+            row.put("birth_date", Date.valueOf(LocalDate.of(2000, 1, 1).plusDays(i % 3650)));
+            row.put("phone_number", "+43-1-" + (4000000 + i));
+            row.put("creation_time", created);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns rows shaped like the result of {@code applicant-message-source-query.sql}.
+     */
+    public static List<Map<String, Object>> applicantMessages(int count) {
+        var rows = new ArrayList<Map<String, Object>>(count);
+        var created = Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 8, 0));
+        for (int i = 1; i <= count; i++) {
+            var row = new LinkedHashMap<String, Object>();
+            row.put("id", (long) i);
+            row.put("a_id", (long) (i / 10 + 1));
+            row.put("app_id", String.valueOf(2300000 + i / 10));
+            row.put("d_code", DEPARTMENTS[i % DEPARTMENTS.length]);
+            row.put("u_code", UNIVERSITIES[i % UNIVERSITIES.length]);
+            row.put("subject", "Application for Computer Science");
+            row.put("text_msg", "I have a strong interest in building scalable applications, which is why I chose Computer Science.");
+            row.put("read_time", null);
+            row.put("creation_time", created);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
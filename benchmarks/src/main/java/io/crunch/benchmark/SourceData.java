@@ -0,0 +1,72 @@
+package io.crunch.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Creates the source and target schemas of the integration tests and generates a configurable volume of source rows.
+ *
+ * <p>The rows are generated on the database server with {@code generate_series}, so millions of rows are created in
+ * seconds without flowing through the JDBC connection. The generated applicants are spread over the universities and
+ * departments of the init script, and the messages over the generated applicants. The id columns of the generated
+ * tables get a primary key afterward, as the keyset pagination of the routes relies on an index on the id.</p>
+ */
+public final class SourceData {
+
+    private static final String APPLICANTS = """
+        INSERT INTO applicant
+        SELECT 1000 + i, 1 + i % 2, 3 + i % 3, (1000000 + i % 9000000)::text, 'applicant' || i || '@fake.com',
+               'First' || i, 'Last' || i, DATE '1990-01-01' + (i % 5000)::int, '+43-1-' || (4000000 + i),
+               TIMESTAMP '2024-01-01' + i * INTERVAL '1 second'
+        FROM generate_series(1, ?) i""";
+
+    private static final String MESSAGES = """
+        INSERT INTO applicant_message
+        SELECT 1000 + i, 1001 + i % ?, 'Application for Computer Science',
+               repeat('I am interested in the Computer Science program. ', 1 + (i % 4)::int),
+               CASE WHEN i % 3 = 0 THEN TIMESTAMP '2024-06-01' + i * INTERVAL '1 second' END,
+               TIMESTAMP '2024-01-01' + i * INTERVAL '1 second'
+        FROM generate_series(1, ?) i""";
+
+    private SourceData() {
+    }
+
+    /**
+     * Executes the given init script, which may contain several statements.
+     *
+     * @param connection the connection of the database to initialize.
+     * @param script     the SQL script, e.g. {@code init-source-db.sql} of the integration tests.
+     */
+    public static void init(Connection connection, Path script) throws IOException, SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(Files.readString(script));
+        }
+    }
+
+    /**
+     * Generates the applicants and their messages, after the rows of the init script.
+     *
+     * @param connection the connection of the source database.
+     * @param applicants the number of generated applicants.
+     * @param messages   the number of generated applicant messages.
+     */
+    public static void generate(Connection connection, long applicants, long messages) throws SQLException {
+        try (var statement = connection.prepareStatement(APPLICANTS)) {
+            statement.setLong(1, applicants);
+            statement.executeUpdate();
+        }
+        try (var statement = connection.prepareStatement(MESSAGES)) {
+            statement.setLong(1, Math.max(applicants, 1));
+            statement.setLong(2, messages);
+            statement.executeUpdate();
+        }
+        try (var statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE applicant ADD PRIMARY KEY (id)");
+            statement.execute("ALTER TABLE applicant_message ADD PRIMARY KEY (id)");
+            statement.execute("ANALYZE");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.crunch.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An end-to-end throughput benchmark of the archive routes.
+ *
+ * <p>The benchmark starts an embedded PostgreSQL server from the binaries bundled with the benchmark JAR, so neither
+ * Docker nor a local installation is needed. It creates the source and target databases from the init scripts of the
+ * integration tests, generates {@code benchmark.applicants} applicants and {@code benchmark.messages} applicant messages
+ * in the source, and then runs the packaged application once per route and repetition, each time in a new JVM with the
+ * GC log enabled. The target table of the route is truncated before every run.</p>
+ *
+ * <p>For every run the number of loaded rows, the wall-clock time of the application JVM (including its startup),
+ * the throughput in rows per second, the peak heap occupancy and the number and total duration of the GC pauses are
+ * reported.</p>
+ *
+ * <p>The benchmark is configured with system properties:</p>
+ * <ul>
+ *   <li>{@code benchmark.applicants}: the number of generated applicants, 100000 by default.</li>
+ *   <li>{@code benchmark.messages}: the number of generated applicant messages, 1000000 by default.</li>
+ *   <li>{@code benchmark.routes}: the comma separated archive commands to run, both routes by default;
+ *   {@code archive-all} archives both tables in one run.</li>
+ *   <li>{@code benchmark.repetitions}: the number of runs of every route, 1 by default.</li>
+ *   <li>{@code benchmark.app}: the application JAR, {@code ../target/quarkus-app/quarkus-run.jar} by default.</li>
+ *   <li>{@code benchmark.init-scripts}: the folder of the init scripts, {@code ../src/test/resources} by default.</li>
+ *   <li>{@code benchmark.jvm-args}: space separated options of the application JVM, e.g. {@code -Xmx512m}.</li>
+ *   <li>{@code benchmark.work-dir}: the folder of the database files and the logs, a new temporary folder by default.</li>
+ * </ul>
+ * <p>Every {@code app.*}, {@code camel.*} and {@code quarkus.*} system property is passed to the application,
+ * so the same data volume can be archived with different settings, e.g. {@code -Dapp.archive.partitions=4}.</p>
+ */
+public final class ThroughputBenchmark {
+
+    private static final Map<String, List<String>> TARGET_TABLES = Map.of(
+        "load-applicant", List.of("applicant"),
+        "load-applicant-message", List.of("applicant_message"),
+        "archive-all", List.of("applicant", "applicant_message"));
+
+    private static final String USER_PASSWORD = "test";
+
+    private ThroughputBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var applicants = Long.getLong("benchmark.applicants", 100_000);
+        var messages = Long.getLong("benchmark.messages", 1_000_000);
+        var routes = System.getProperty("benchmark.routes", "load-applicant,load-applicant-message").split(",");
+        var repetitions = Integer.getInteger("benchmark.repetitions", 1);
+        var app = Path.of(System.getProperty("benchmark.app", "../target/quarkus-app/quarkus-run.jar")).toAbsolutePath();
+        var initScripts = Path.of(System.getProperty("benchmark.init-scripts", "../src/test/resources"));
+        var workDir = System.getProperty("benchmark.work-dir") != null
+            ? Files.createDirectories(Path.of(System.getProperty("benchmark.work-dir")))
+            : Files.createTempDirectory("archive-benchmark");
+        if (!Files.exists(app)) {
+            throw new IllegalStateException("The application " + app + " does not exist, package it with 'mvn package -DskipTests' first");
+        }
+
+        try (var postgres = EmbeddedPostgres.builder()
+                .setDataDirectory(workDir.resolve("data"))
+                .setCleanDataDirectory(true)
+                .start()) {
+            try (var connection = postgres.getPostgresDatabase().getConnection(); var statement = connection.createStatement()) {
+                for (var database : List.of("app-source", "app-target")) {
+                    statement.execute("CREATE USER \"" + database + "\" PASSWORD '" + USER_PASSWORD + "'");
+                    statement.execute("CREATE DATABASE \"" + database + "\" OWNER \"" + database + "\"");
+                }
+            }
+            var sourceUrl = "jdbc:postgresql://localhost:" + postgres.getPort() + "/app-source";
+            var targetUrl = "jdbc:postgresql://localhost:" + postgres.getPort() + "/app-target";
+            try (var source = connect(sourceUrl, "app-source"); var target = connect(targetUrl, "app-target")) {
+                SourceData.init(source, initScripts.resolve("init-source-db.sql"));
+                SourceData.init(target, initScripts.resolve("init-target-db.sql"));
+                System.out.printf("Generating %d applicants and %d applicant messages%n", applicants, messages);
+                var start = System.nanoTime();
+                SourceData.generate(source, applicants, messages);
+                System.out.printf("Generated the source rows in %.1f s%n", (System.nanoTime() - start) / 1e9);
+            }
+
+            var results = new ArrayList<String>();
+            results.add(String.format("%-24s %4s %10s %10s %12s %14s %10s %12s %6s",
+                "route", "run", "rows", "wall (s)", "rows/s", "peak heap (MB)", "GC pauses", "GC time (ms)", "exit"));
+            for (var route : routes) {
+                var tables = TARGET_TABLES.get(route);
+                if (tables == null) {
+                    throw new IllegalArgumentException("Unknown route " + route + ", expected one of " + TARGET_TABLES.keySet());
+                }
+                for (int run = 1; run <= repetitions; run++) {
+                    try (var target = connect(targetUrl, "app-target"); var statement = target.createStatement()) {
+                        statement.execute("TRUNCATE " + String.join(", ", tables));
+                        statement.execute("DROP TABLE IF EXISTS archive_checkpoint");
+                    }
+                    var gcLog = workDir.resolve(route + "-" + run + "-gc.log");
+                    var appLog = workDir.resolve(route + "-" + run + ".log");
+                    var command = command(app, route, gcLog, sourceUrl, targetUrl);
+                    System.out.printf("Running %s (%d/%d), log: %s%n", route, run, repetitions, appLog);
+                    var start = System.nanoTime();
+                    var process = new ProcessBuilder(command)
+                        .redirectErrorStream(true)
+                        .redirectOutput(appLog.toFile())
+                        .start();
+                    var exitCode = process.waitFor();
+                    var seconds = (System.nanoTime() - start) / 1e9;
+                    long rows = 0;
+                    try (var target = connect(targetUrl, "app-target"); var statement = target.createStatement()) {
+                        for (var table : tables) {
+                            try (var resultSet = statement.executeQuery("SELECT count(*) FROM " + table)) {
+                                resultSet.next();
+                                rows += resultSet.getLong(1);
+                            }
+                        }
+                    }
+                    var gc = GcStats.parse(gcLog);
+                    results.add(String.format("%-24s %4d %10d %10.1f %12.0f %14d %10d %12.1f %6d",
+                        route, run, rows, seconds, rows / seconds, gc.peakHeapMb(), gc.pauses(), gc.pauseMillis(), exitCode));
+                }
+            }
+            System.out.println();
+            results.forEach(System.out::println);
+        }
+    }
+
+    /**
+     * Returns the command line of the application JVM archiving the given route.
+     */
+    private static List<String> command(Path app, String route, Path gcLog, String sourceUrl, String targetUrl) {
+        var command = new ArrayList<String>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-Xlog:gc:file=" + gcLog);
+        var jvmArgs = System.getProperty("benchmark.jvm-args", "").trim();
+        if (!jvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        command.add("-Dquarkus.datasource.source.jdbc.url=" + sourceUrl);
+        command.add("-Dquarkus.datasource.target.jdbc.url=" + targetUrl);
+        command.add("-Dquarkus.http.port=0");
+        command.add("-Dapp.archive.year=2024");
+        command.add("-Dapp.archive.command=" + route);
+        System.getProperties().stringPropertyNames().stream()
+            .filter(name -> name.startsWith("app.") || name.startsWith("camel.") || name.startsWith("quarkus."))
+            .sorted()
+            .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        command.add("-jar");
+        command.add(app.toString());
+        return command;
+    }
+
+    private static Connection connect(String url, String user) throws SQLException {
+        return DriverManager.getConnection(url, user, USER_PASSWORD);
+    }
+}
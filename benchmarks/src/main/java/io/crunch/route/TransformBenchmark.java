@@ -0,0 +1,108 @@
+package io.crunch.route;
+
+import io.crunch.benchmark.Rows;
+import io.crunch.lookup.Lookups;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-row cost of the transformation stage of the archive routes on a chunk of synthetic fact rows:
+ * resolving the university and department codes of the lookups, then the transformation of the route.
+ *
+ * <p>The routes are instantiated directly, without a CDI container, and the lookup tables are built from the ids
+ * of the synthetic rows. The same chunk is resolved on every invocation, which overwrites the codes set by
+ * the previous one, so the rows keep their size. The rows are either hash maps, as returned by the {@code jdbc}
+ * component, or typed rows as streamed with {@code app.archive.typed-rows}. The score is the average time of
+ * transforming one row.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(TransformBenchmark.BATCH_SIZE)
+public class TransformBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final List<String> CODE_COLUMNS = List.of("u_code", "d_code");
+
+    /** The representation of the rows: {@code map} or {@code typed}. */
+    @Param({"map", "typed"})
+    String rows;
+
+    private DefaultCamelContext context;
+
+    private ApplicantRoute applicantRoute;
+
+    private ApplicantMessageRoute applicantMessageRoute;
+
+    private Lookups applicantLookups;
+
+    private Lookups applicantMessageLookups;
+
+    private Exchange applicants;
+
+    private Exchange applicantMessages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new DefaultCamelContext();
+        applicantRoute = new ApplicantRoute();
+        applicantMessageRoute = new ApplicantMessageRoute();
+        applicantLookups = new Lookups(applicantRoute.getLookups(), Rows.lookupTables());
+        applicantMessageLookups = new Lookups(applicantMessageRoute.getLookups(), Rows.lookupTables());
+        var typed = "typed".equals(rows);
+        var applicantFacts = Rows.facts(Rows.applicants(BATCH_SIZE));
+        var applicantMessageFacts = Rows.facts(Rows.applicantMessages(BATCH_SIZE));
+        applicants = newExchange(typed ? Rows.typed(applicantFacts, CODE_COLUMNS) : applicantFacts);
+        applicantMessages = newExchange(typed ? Rows.typed(applicantMessageFacts, CODE_COLUMNS) : applicantMessageFacts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object transformApplicants() {
+        applicants.getIn().setBody(applicantLookups.enrich(applicants.getIn().getBody(List.class)));
+        applicantRoute.transform(applicants);
+        return applicants.getIn().getBody();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object transformApplicantMessages() {
+        applicantMessages.getIn().setBody(applicantMessageLookups.enrich(applicantMessages.getIn().getBody(List.class)));
+        applicantMessageRoute.transform(applicantMessages);
+        return applicantMessages.getIn().getBody();
+    }
+
+    private Exchange newExchange(List<Map<String, Object>> rows) {
+        var exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(rows);
+        return exchange;
+    }
+}
@@ -0,0 +1,107 @@
+package io.crunch.template;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the template lookups the routes perform while being configured and on every exchange.
+ *
+ * <p>The templates are served either from the {@code templates} folder packaged in the benchmark JAR, which goes through
+ * the class path, or from a copy of the same files in a temporary folder of the local file system.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlTemplatesBenchmark {
+
+    private static final String SOURCE_QUERY_TEMPLATE = "applicant-message-source-query.sql";
+
+    private static final String TARGET_QUERY_TEMPLATE = "applicant-message-target-query.sql";
+
+    private static final List<String> TEMPLATES = List.of(
+        "applicant-message-source-query.sql", "applicant-message-target-query.sql", "applicant-message-range-query.sql",
+        "applicant-source-query.sql", "applicant-target-query.sql", "applicant-range-query.sql");
+
+    private static final int YEAR = 2024;
+
+    /** Where the templates are read from: {@code jar} or {@code filesystem}. */
+    @Param({"jar", "filesystem"})
+    String source;
+
+    private Path folder;
+
+    private SqlTemplates templates;
+
+    private String sql;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, URISyntaxException {
+        var templateFolder = "templates";
+        if ("filesystem".equals(source)) {
+            folder = Files.createTempDirectory("templates");
+            for (var template : TEMPLATES) {
+                try (var in = Objects.requireNonNull(getClass().getResourceAsStream("/templates/" + template), template)) {
+                    Files.copy(in, folder.resolve(template));
+                }
+            }
+            templateFolder = folder.toAbsolutePath().toString();
+        }
+        templates = new SqlTemplates(templateFolder);
+        sql = templates.getSqlTemplate(YEAR, SOURCE_QUERY_TEMPLATE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (folder != null) {
+            try (var files = Files.list(folder)) {
+                files.forEach(file -> {
+                    try {
+                        Files.delete(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            Files.delete(folder);
+        }
+    }
+
+    @Benchmark
+    public String getSqlTemplate() throws IOException, URISyntaxException {
+        return templates.getSqlTemplate(YEAR, SOURCE_QUERY_TEMPLATE);
+    }
+
+    @Benchmark
+    public List<String> getJdbcParameterNames() throws IOException, URISyntaxException {
+        return templates.getJdbcParameterNames(YEAR, TARGET_QUERY_TEMPLATE);
+    }
+
+    /** The cost of a cache miss: parsing the placeholders of a template that has already been read. */
+    @Benchmark
+    public SqlTemplate compile() {
+        return SqlTemplate.compile(sql);
+    }
+}
@@ -0,0 +1,174 @@
+package io.crunch.checkpoint;
+
+import io.agroal.api.AgroalDataSource;
+import io.crunch.extract.IdRange;
+import io.quarkus.agroal.DataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the progress of archive runs in the {@code archive_checkpoint} table of the target database.
+ *
+ * <p>A run records one row per route, year and partition, holding the id range of the partition and the last id
+ * loaded into the target table. The last id is updated in the same transaction that loads the rows, so the checkpoint
+ * never gets ahead of, or falls behind, the committed data. An interrupted run can be resumed from the recorded
+ * last ids, without loading any row twice.</p>
+ *
+ * <p>The table is created on first use if it does not exist.</p>
+ *
+ * <p>Incremental runs do not need a checkpoint, their starting point is the watermark of the archived rows,
+ * read from the target table itself.</p>
+ */
+@ApplicationScoped
+public class CheckpointStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointStore.class);
+
+    private static final String CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS archive_checkpoint (
+         route_id character varying(255) NOT NULL, year integer NOT NULL,
+         range_start bigint NOT NULL, range_end bigint NOT NULL, last_id bigint NOT NULL,
+         updated timestamp without time zone NOT NULL,
+         PRIMARY KEY (route_id, year, range_end))""";
+
+    private final AgroalDataSource dataSource;
+
+    public CheckpointStore(@DataSource("target") AgroalDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Starts a new run of the route, replacing the checkpoints of a previous run of the same year.
+     *
+     * @param routeId    the id of the archive route.
+     * @param year       the archived year.
+     * @param partitions the id ranges extracted by the partitions of the run.
+     * @throws SQLException if the checkpoints cannot be written.
+     */
+    public void start(String routeId, int year, List<IdRange> partitions) throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            createTable(connection);
+            connection.setAutoCommit(false);
+            try (var delete = connection.prepareStatement("DELETE FROM archive_checkpoint WHERE route_id = ? AND year = ?");
+                 var insert = connection.prepareStatement("""
+                     INSERT INTO archive_checkpoint (route_id, year, range_start, range_end, last_id, updated)
+                     VALUES (?, ?, ?, ?, ?, LOCALTIMESTAMP)""")) {
+                delete.setString(1, routeId);
+                delete.setInt(2, year);
+                delete.executeUpdate();
+                for (var partition : partitions) {
+                    insert.setString(1, routeId);
+                    insert.setInt(2, year);
+                    insert.setLong(3, partition.after());
+                    insert.setLong(4, partition.upTo());
+                    insert.setLong(5, partition.after());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the remaining id ranges of the last run of the route, each starting after its last loaded id.
+     *
+     * @param routeId the id of the archive route.
+     * @param year    the archived year.
+     * @return the unfinished ranges, which is an empty list if the last run completed,
+     * or an empty {@link Optional} if the route has not been run for the year yet.
+     * @throws SQLException if the checkpoints cannot be read.
+     */
+    public Optional<List<IdRange>> resume(String routeId, int year) throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            createTable(connection);
+            try (var select = connection.prepareStatement(
+                     "SELECT last_id, range_end FROM archive_checkpoint WHERE route_id = ? AND year = ? ORDER BY range_end")) {
+                select.setString(1, routeId);
+                select.setInt(2, year);
+                try (var resultSet = select.executeQuery()) {
+                    var ranges = new ArrayList<IdRange>();
+                    boolean found = false;
+                    while (resultSet.next()) {
+                        found = true;
+                        var range = new IdRange(resultSet.getLong(1), resultSet.getLong(2));
+                        if (range.after() < range.upTo()) {
+                            ranges.add(range);
+                        }
+                    }
+                    return found ? Optional.of(ranges) : Optional.empty();
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the last loaded id of a partition, using the connection, and therefore the transaction, of the load.
+     *
+     * @param connection the connection of the target database that loaded the rows.
+     * @param routeId    the id of the archive route.
+     * @param year       the archived year.
+     * @param rangeEnd   the last id of the partition's range, which identifies the partition.
+     * @param lastId     the last id loaded into the target table.
+     * @throws SQLException if the checkpoint cannot be written.
+     */
+    public void save(Connection connection, String routeId, int year, long rangeEnd, long lastId) throws SQLException {
+        try (var update = connection.prepareStatement(
+                 "UPDATE archive_checkpoint SET last_id = ?, updated = LOCALTIMESTAMP WHERE route_id = ? AND year = ? AND range_end = ?")) {
+            update.setLong(1, lastId);
+            update.setString(2, routeId);
+            update.setInt(3, year);
+            update.setLong(4, rangeEnd);
+            if (update.executeUpdate() == 0) {
+                logger.warn("No checkpoint of route {} and year {} ends at id {}", routeId, year, rangeEnd);
+            }
+        }
+    }
+
+    /**
+     * Returns the values of the given columns in the latest row of the year already archived into the target table,
+     * the rows being ordered by the columns in turn.
+     *
+     * @param table   the target table.
+     * @param columns the watermark columns.
+     * @param year    the archived year.
+     * @return the watermark, the values of the columns in their order, all {@code null} if nothing has been archived
+     * for the year yet.
+     * @throws SQLException if the target table cannot be read.
+     */
+    public List<Object> readWatermark(String table, List<String> columns, int year) throws SQLException {
+        var sql = "SELECT " + String.join(", ", columns) + " FROM " + table + " WHERE year = ? ORDER BY "
+            + columns.stream().map(column -> column + " DESC NULLS LAST").collect(Collectors.joining(", ")) + " LIMIT 1";
+        try (var connection = dataSource.getConnection();
+             var select = connection.prepareStatement(sql)) {
+            select.setInt(1, year);
+            try (var resultSet = select.executeQuery()) {
+                var values = new ArrayList<>(Collections.nCopies(columns.size(), null));
+                if (resultSet.next()) {
+                    for (int i = 0; i < columns.size(); i++) {
+                        values.set(i, resultSet.getObject(i + 1));
+                    }
+                }
+                return values;
+            }
+        }
+    }
+
+    private static void createTable(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+    }
+}
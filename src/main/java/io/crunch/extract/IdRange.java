@@ -0,0 +1,34 @@
+package io.crunch.extract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A range of source row ids, extracted by one partition of an archive run.
+ *
+ * @param after the id after which the range starts (exclusive).
+ * @param upTo  the last id of the range (inclusive).
+ */
+public record IdRange(long after, long upTo) {
+
+    /**
+     * Splits the ids between {@code minId} and {@code maxId} (both inclusive) into at most {@code partitions}
+     * consecutive ranges of equal width. The ranges are only bounds, they may contain any number of rows.
+     *
+     * @param minId      the smallest id of the source table.
+     * @param maxId      the largest id of the source table.
+     * @param partitions the number of ranges to create, must be positive.
+     * @return the ranges in ascending order, or an empty list if {@code maxId} is less than {@code minId}.
+     */
+    public static List<IdRange> split(long minId, long maxId, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Number of partitions must be positive: " + partitions);
+        }
+        var ranges = new ArrayList<IdRange>(partitions);
+        long width = Math.max(1, Math.ceilDiv(maxId - minId + 1, partitions));
+        for (long after = minId - 1; after < maxId; after += width) {
+            ranges.add(new IdRange(after, Math.min(maxId, after + width)));
+        }
+        return ranges;
+    }
+}
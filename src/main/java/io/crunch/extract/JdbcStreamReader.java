@@ -0,0 +1,116 @@
+package io.crunch.extract;
+
+import io.crunch.row.Row;
+import io.crunch.row.RowSchema;
+import io.crunch.template.ParameterBinder;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.SynchronizationAdapter;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A Camel {@link Processor} that executes a query on the source database and streams its result set.
+ *
+ * <p>Unlike the {@code jdbc} component, which materializes the whole result as a {@link java.util.List}, this processor
+ * sets an iterator over a forward-only, read-only cursor as the message body. The rows are fetched from the database
+ * in chunks of the configured fetch size while the iterator is consumed, so memory usage stays flat regardless of the
+ * size of the result.</p>
+ *
+ * <p>PostgreSQL only honors the fetch size inside a transaction, therefore the query runs with auto-commit disabled,
+ * and the transaction is kept open until the iterator is exhausted or the exchange completes. The named placeholders
+ * of the query are bound from the message headers with the same names.</p>
+ *
+ * <p>When the columns added to the rows after the extraction are given, the rows are typed {@link Row}s with a slot
+ * for every column of the result and every added column, instead of hash maps. The {@link RowSchema} of the rows is
+ * shared by all the queries of the reader as long as the columns of the result do not change.</p>
+ */
+public class JdbcStreamReader implements Processor {
+
+    private final DataSource dataSource;
+
+    private final ParameterBinder binder;
+
+    private final int fetchSize;
+
+    /** The columns added to the typed rows, {@code null} if the rows are hash maps. */
+    private final List<String> addedColumns;
+
+    /** The schema of the typed rows of the last query. */
+    private volatile RowSchema schema;
+
+    /**
+     * Constructs a new {@link JdbcStreamReader}.
+     *
+     * @param dataSource the source data source.
+     * @param binder     the binder of the message headers to the SQL query.
+     * @param fetchSize  the number of rows fetched from the database in one round trip.
+     */
+    public JdbcStreamReader(DataSource dataSource, ParameterBinder binder, int fetchSize) {
+        this(dataSource, binder, fetchSize, null);
+    }
+
+    /**
+     * Constructs a new {@link JdbcStreamReader} returning typed rows.
+     *
+     * @param dataSource   the source data source.
+     * @param binder       the binder of the message headers to the SQL query.
+     * @param fetchSize    the number of rows fetched from the database in one round trip.
+     * @param addedColumns the columns added to the rows after the extraction, e.g. by the transformation of the route;
+     *                     {@code null} to return the rows as hash maps.
+     */
+    public JdbcStreamReader(DataSource dataSource, ParameterBinder binder, int fetchSize, List<String> addedColumns) {
+        this.dataSource = dataSource;
+        this.binder = binder;
+        this.fetchSize = fetchSize;
+        this.addedColumns = addedColumns;
+    }
+
+    /**
+     * Executes the query and sets a {@link ResultSetRows} iterator as the message body.
+     * The database resources are released when the iterator is exhausted, or at the latest when the exchange completes.
+     *
+     * @param exchange the {@link Exchange} whose headers hold the query parameters.
+     * @throws SQLException if the query cannot be executed.
+     */
+    @Override
+    public void process(Exchange exchange) throws SQLException {
+        var connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            var statement = connection.prepareStatement(binder.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            binder.bind(statement, exchange.getIn().getHeaders());
+            var resultSet = statement.executeQuery();
+            var rows = new ResultSetRows(connection, statement, resultSet, getSchema(resultSet));
+            exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    rows.close();
+                }
+            });
+            exchange.getIn().setBody(rows);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the schema of the typed rows of the given result, or {@code null} if the rows are hash maps.
+     */
+    private RowSchema getSchema(ResultSet resultSet) throws SQLException {
+        if (addedColumns == null) {
+            return null;
+        }
+        var current = schema;
+        if (current == null || !current.matches(resultSet.getMetaData())) {
+            current = RowSchema.of(resultSet.getMetaData(), addedColumns);
+            schema = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,99 @@
+package io.crunch.extract;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Tracks the position of a keyset paginated extraction.
+ *
+ * <p>The source query is expected to return the rows ordered by the numeric key column, restricted to keys greater
+ * than the last key of the previous page ({@code :?lastId}) and not greater than the upper bound of the extracted range
+ * ({@code :?upperId}), and limited to the page size ({@code :?pageSize}).
+ * Every page costs the same regardless of how deep the extraction is, as opposed to {@code OFFSET} based paging.</p>
+ *
+ * <p>The rows of a page are counted while they are consumed, and the extraction is exhausted once a page
+ * returns fewer rows than the page size.</p>
+ */
+public class KeysetCursor {
+
+    private final String keyColumn;
+
+    private final int pageSize;
+
+    private final long upperId;
+
+    private long lastId;
+
+    private int pageRows;
+
+    private boolean started;
+
+    /**
+     * Constructs a new {@link KeysetCursor} positioned at the beginning of the given id range.
+     *
+     * @param keyColumn the name of the numeric key column the rows are ordered by.
+     * @param pageSize  the maximum number of rows returned by one page.
+     * @param range     the range of keys to be extracted.
+     */
+    public KeysetCursor(String keyColumn, int pageSize, IdRange range) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.keyColumn = keyColumn;
+        this.pageSize = pageSize;
+        this.lastId = range.after();
+        this.upperId = range.upTo();
+    }
+
+    /**
+     * Returns whether another page has to be fetched, that is nothing has been fetched yet,
+     * or the previous page was full.
+     */
+    public boolean hasMorePages() {
+        return !started || pageRows == pageSize;
+    }
+
+    /**
+     * Starts a new page and returns the key after which its rows are fetched.
+     */
+    public long nextPage() {
+        started = true;
+        pageRows = 0;
+        return lastId;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public long getUpperId() {
+        return upperId;
+    }
+
+    /**
+     * Wraps the rows of the current page, so that every consumed row advances the cursor.
+     *
+     * @param rows the rows of the current page.
+     * @return an iterator returning the same rows.
+     */
+    public Iterator<Map<String, Object>> track(Iterator<Map<String, Object>> rows) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                var row = rows.next();
+                lastId = ((Number) row.get(keyColumn)).longValue();
+                pageRows++;
+                return row;
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package io.crunch.extract;
+
+import io.crunch.row.Row;
+import io.crunch.row.RowSchema;
+import org.apache.camel.RuntimeCamelException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator over the rows of an open {@link ResultSet}, where each row is returned as a map of column labels to values.
+ * The rows are {@link java.util.LinkedHashMap}s, or typed {@link Row}s of a shared {@link RowSchema} if a schema is given.
+ *
+ * <p>The iterator owns the result set, the statement and the connection it was created from, and closes them
+ * as soon as the last row has been read. {@link #close()} can be called at any time to release the resources
+ * of a partially consumed result.</p>
+ */
+public class ResultSetRows implements Iterator<Map<String, Object>>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultSetRows.class);
+
+    private final Connection connection;
+
+    private final Statement statement;
+
+    private final ResultSet resultSet;
+
+    private final String[] columns;
+
+    /** The schema of the typed rows, {@code null} if the rows are returned as hash maps. */
+    private final RowSchema schema;
+
+    private boolean fetched;
+
+    private boolean closed;
+
+    ResultSetRows(Connection connection, Statement statement, ResultSet resultSet, RowSchema schema) throws SQLException {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.schema = schema;
+        var metaData = resultSet.getMetaData();
+        this.columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!fetched) {
+            try {
+                fetched = resultSet.next();
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeCamelException("Cannot read the next row of the result set", e);
+            }
+            if (!fetched) {
+                close();
+            }
+        }
+        return fetched;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        try {
+            if (schema != null) {
+                var row = schema.newRow();
+                for (int i = 0; i < columns.length; i++) {
+                    row.setValue(i, resultSet.getObject(i + 1));
+                }
+                return row;
+            }
+            var row = new LinkedHashMap<String, Object>(columns.length * 2);
+            for (int i = 0; i < columns.length; i++) {
+                row.put(columns[i], resultSet.getObject(i + 1));
+            }
+            return row;
+        } catch (SQLException e) {
+            close();
+            throw new RuntimeCamelException("Cannot read the current row of the result set", e);
+        }
+    }
+
+    /**
+     * Closes the result set, the statement and the connection; the read-only transaction is rolled back.
+     * Errors are logged and ignored, as the rows have already been read by this time.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (connection; statement; resultSet) {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("An issue occurred while closing the source result set", e);
+        }
+    }
+}
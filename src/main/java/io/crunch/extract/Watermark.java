@@ -0,0 +1,35 @@
+package io.crunch.extract;
+
+import java.util.List;
+
+/**
+ * The columns whose values in the latest archived row limit the extraction of an incremental (delta) archive run.
+ */
+public enum Watermark {
+
+    /** Every row of the source is extracted. */
+    NONE(),
+
+    /** Only rows with an id greater than the largest archived id are extracted. */
+    ID("id"),
+
+    /**
+     * Only rows created after the latest archived row are extracted. The rows created at the same time as that row
+     * are extracted if their id is greater, so a row committed late with the latest creation time is not missed.
+     */
+    CREATION_TIME("creation_time", "id");
+
+    private final List<String> columns;
+
+    Watermark(String... columns) {
+        this.columns = List.of(columns);
+    }
+
+    /**
+     * Returns the names of the watermark columns, which are the same in the source and the target tables,
+     * in the order the archived rows are ordered by.
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,194 @@
+package io.crunch.load;
+
+import org.apache.camel.Exchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A transaction on a single target connection, committed every {@code commitInterval} rows.
+ *
+ * <p>One instance is used by a partition of an archive run: the loaders write their chunks with
+ * {@link #getConnection()} and report them with {@link #written(Exchange, List)}, which commits the transaction
+ * once at least {@code commitInterval} rows are uncommitted. The {@link TransactionHook} is executed before every
+ * commit, so the checkpoint of the partition commits together with the rows.
+ * The statements prepared with {@link #prepareStatement(String)} are cached in a {@link StatementCache} and reused by
+ * every chunk of the partition, until the transaction is closed.</p>
+ *
+ * <p>If writing a chunk fails, only the uncommitted rows are rolled back, and the id range of the rolled back rows
+ * is logged, so the last commit is a clean boundary the run can be resumed from.</p>
+ */
+public class ChunkedTransaction implements AutoCloseable {
+
+    /** The exchange property holding the {@link ChunkedTransaction} of the partition. */
+    public static final String PROPERTY = "archiveChunkedTransaction";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedTransaction.class);
+
+    private final DataSource dataSource;
+
+    private final int commitInterval;
+
+    private final TransactionHook hook;
+
+    private final String keyColumn;
+
+    private final StatementCache statements;
+
+    private Connection connection;
+
+    private int uncommittedRows;
+
+    private Object lastUncommittedId;
+
+    private Object lastCommittedId;
+
+    /**
+     * Constructs a new {@link ChunkedTransaction}; the connection is obtained when the first chunk is written.
+     *
+     * @param dataSource     the target data source.
+     * @param commitInterval the minimum number of rows committed together.
+     * @param hook           the callback executed in the transaction before every commit.
+     * @param keyColumn      the name of the key column of the rows, used to report the uncommitted rows.
+     * @param statementStats the counters of the statements reused from, and added to, the statement cache.
+     */
+    public ChunkedTransaction(DataSource dataSource, int commitInterval, TransactionHook hook, String keyColumn,
+                              StatementCacheStats statementStats) {
+        this.dataSource = dataSource;
+        this.commitInterval = commitInterval;
+        this.hook = hook;
+        this.keyColumn = keyColumn;
+        this.statements = new StatementCache(statementStats);
+    }
+
+    /**
+     * Returns the connection of the transaction, opening it with auto-commit disabled if necessary.
+     *
+     * @throws SQLException if no connection can be obtained.
+     */
+    public Connection getConnection() throws SQLException {
+        if (connection == null) {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+        }
+        return connection;
+    }
+
+    /**
+     * Returns the prepared statement of the given SQL command on the connection of the transaction, prepared once
+     * and reused by the following chunks. The statement must not be closed by the caller.
+     *
+     * @param sql the SQL command.
+     * @throws SQLException if no connection can be obtained, or the statement cannot be prepared.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return statements.prepare(getConnection(), sql);
+    }
+
+    /**
+     * Records the chunk of rows just written, and commits the transaction if the commit interval is reached.
+     *
+     * @param exchange the {@link Exchange} of the chunk, passed to the hook.
+     * @param rows     the written rows.
+     * @throws SQLException if the commit fails.
+     */
+    public void written(Exchange exchange, List<Map<String, Object>> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        lastUncommittedId = rows.getLast().get(keyColumn);
+        uncommittedRows += rows.size();
+        if (uncommittedRows >= commitInterval) {
+            commit(exchange);
+        }
+    }
+
+    /**
+     * Commits the uncommitted rows, if any.
+     *
+     * @param exchange the {@link Exchange} of the last written chunk, passed to the hook.
+     * @throws SQLException if the commit fails.
+     */
+    public void commit(Exchange exchange) throws SQLException {
+        if (uncommittedRows == 0) {
+            return;
+        }
+        hook.beforeCommit(connection, exchange, ((Number) lastUncommittedId).longValue());
+        connection.commit();
+        logger.debug("Committed {} rows up to {} {}", uncommittedRows, keyColumn, lastUncommittedId);
+        lastCommittedId = lastUncommittedId;
+        uncommittedRows = 0;
+    }
+
+    /**
+     * Commits the uncommitted rows when every key up to the given end of the range of the transaction has been written.
+     * The hook is executed with the end of the range as the last key, also when no row is uncommitted, so that
+     * the range can be recorded as complete on the connection of the transaction, without acquiring another one.
+     *
+     * @param exchange the {@link Exchange} of the last written chunk, passed to the hook.
+     * @param rangeEnd the last key of the range.
+     * @throws SQLException if the commit fails.
+     */
+    public void commitRange(Exchange exchange, long rangeEnd) throws SQLException {
+        if (uncommittedRows == 0 && hook == TransactionHook.NONE) {
+            return;
+        }
+        hook.beforeCommit(getConnection(), exchange, rangeEnd);
+        connection.commit();
+        logger.debug("Committed {} rows of the range up to {} {}", uncommittedRows, keyColumn, rangeEnd);
+        if (uncommittedRows > 0) {
+            lastCommittedId = lastUncommittedId;
+            uncommittedRows = 0;
+        }
+    }
+
+    /**
+     * Rolls back the failed chunk together with the uncommitted rows written before it, and logs their id ranges.
+     *
+     * @param failedRows the rows of the chunk that failed.
+     * @param cause      the failure of the chunk.
+     */
+    public void rollback(List<Map<String, Object>> failedRows, Exception cause) {
+        if (connection == null) {
+            return;
+        }
+        logger.error("Failed to load {} rows with {} {} to {}, rolled back together with {} uncommitted rows; the last committed {} is {}: {}",
+            failedRows.size(), keyColumn, failedRows.isEmpty() ? null : failedRows.getFirst().get(keyColumn),
+            failedRows.isEmpty() ? null : failedRows.getLast().get(keyColumn),
+            uncommittedRows, keyColumn, lastCommittedId, cause.getMessage());
+        uncommittedRows = 0;
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("An issue occurred while rolling back the target transaction", e);
+        }
+    }
+
+    /**
+     * Closes the cached statements and the connection; rows that have not been committed are rolled back.
+     */
+    @Override
+    public void close() {
+        if (connection == null) {
+            return;
+        }
+        if (uncommittedRows > 0) {
+            logger.warn("Discarding {} uncommitted rows after {} {}", uncommittedRows, keyColumn, lastCommittedId);
+        }
+        statements.close();
+        try (var closed = connection) {
+            closed.rollback();
+        } catch (SQLException e) {
+            logger.warn("An issue occurred while closing the target transaction", e);
+        } finally {
+            connection = null;
+            uncommittedRows = 0;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.crunch.load;
+
+import org.apache.camel.Exchange;
+
+import java.util.Map;
+
+/**
+ * Access to the constant columns of an archive run: the target columns that have the same value in every row,
+ * such as the archiving year and the archiving time.
+ *
+ * <p>The values are fixed once when the run starts and kept in the {@value #PROPERTY} exchange property, which
+ * the partitions and chunks inherit. The loaders bind them once per statement instead of reading them from
+ * every row, so all the rows of a run get the same values.</p>
+ */
+public final class ConstantColumns {
+
+    /** The exchange property holding the values of the constant columns by placeholder name. */
+    public static final String PROPERTY = "archiveConstantColumns";
+
+    private ConstantColumns() {
+    }
+
+    /**
+     * Returns the values of the constant columns of the run of the given exchange.
+     *
+     * @param exchange the exchange of the run, or of one of its partitions or chunks.
+     * @return the values by placeholder name, empty if the run has no constant columns.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> get(Exchange exchange) {
+        Map<String, Object> values = exchange.getProperty(PROPERTY, Map.class);
+        return values != null ? values : Map.of();
+    }
+}
@@ -0,0 +1,57 @@
+package io.crunch.load;
+
+import io.crunch.template.InsertStatement;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Camel {@link Processor} that archives a chunk of rows into the gzip compressed CSV files of the {@link CsvFileSink}
+ * of the run, instead of the target database.
+ *
+ * <p>The columns are taken from the target {@code INSERT} template, as by the {@link PgCopyLoader}, so the files
+ * have the columns and the CSV format the target table would be loaded with by PostgreSQL {@code COPY}.
+ * The chunk is encoded on the thread of the partition, and written into the shared sink as one block,
+ * so the records of a chunk are never split between two files.</p>
+ */
+public class CsvFileLoader implements Processor {
+
+    private final CsvRecords records;
+
+    /**
+     * Constructs a new {@link CsvFileLoader}.
+     *
+     * @param insert    the parsed target {@code INSERT} template.
+     * @param constants the placeholders of the constant columns, which are not read from the rows.
+     */
+    public CsvFileLoader(InsertStatement insert, Collection<String> constants) {
+        this.records = new CsvRecords(insert, constants);
+    }
+
+    /**
+     * Writes the rows of the message body into the archive files.
+     *
+     * @param exchange the {@link Exchange} containing the chunk of rows in its message body,
+     *                 and the {@link CsvFileSink} of the run in its properties.
+     * @throws IOException if the rows cannot be written.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void process(Exchange exchange) throws IOException {
+        List<Map<String, Object>> rows = exchange.getIn().getBody(List.class);
+        if (rows.isEmpty()) {
+            return;
+        }
+        var encoder = records.encoder(ConstantColumns.get(exchange));
+        var chunk = new StringBuilder(rows.size() * 256);
+        for (var row : rows) {
+            encoder.append(chunk, row);
+        }
+        CsvFileSink.get(exchange).write(chunk.toString().getBytes(StandardCharsets.UTF_8), rows.size());
+    }
+}
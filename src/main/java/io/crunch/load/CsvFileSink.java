@@ -0,0 +1,173 @@
+package io.crunch.load;
+
+import org.apache.camel.Exchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The gzip compressed CSV files the rows of a table and year are archived into by the {@code file} load mode.
+ *
+ * <p>The files are named {@code <table>-<year>-<part>.csv.gz}, every file starting with a header record of the column
+ * names. When the compressed size of a file reaches the maximum size, the next chunk is written into a new part,
+ * so the files are rolled at chunk boundaries. Every chunk is flushed through the compressor, so the size of the file
+ * includes the compressed chunk when the next one is written, instead of lagging behind by the data the compressor
+ * still holds. The first part of a run follows the parts already in the directory,
+ * so a run never overwrites an earlier archive.</p>
+ *
+ * <p>One instance is shared by the partitions of a run: the chunks are encoded by the partitions concurrently,
+ * and written one at a time. The last file is completed when the sink is closed.</p>
+ */
+public final class CsvFileSink implements AutoCloseable {
+
+    /** The exchange property holding the {@link CsvFileSink} of the run. */
+    public static final String PROPERTY = "archiveCsvFileSink";
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvFileSink.class);
+
+    /** The size of the buffer of the compressed output. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+
+    private final String prefix;
+
+    private final byte[] header;
+
+    private final long maxFileSize;
+
+    private int part;
+
+    private FileChannel channel;
+
+    private OutputStream out;
+
+    private long rows;
+
+    private int files;
+
+    /**
+     * Constructs a new {@link CsvFileSink}; the first file is created when the first chunk is written.
+     *
+     * @param directory   the directory of the files, created if missing.
+     * @param table       the name of the archived table.
+     * @param year        the archived year.
+     * @param columns     the names of the columns, in the order of the values of the records.
+     * @param maxFileSize the compressed size in bytes a file is rolled at.
+     * @throws IOException if the directory cannot be created or listed.
+     */
+    public CsvFileSink(Path directory, String table, int year, List<String> columns, long maxFileSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.prefix = table.toLowerCase() + '-' + year + '-';
+        this.header = (String.join(",", columns) + '\n').getBytes(StandardCharsets.UTF_8);
+        this.maxFileSize = maxFileSize;
+        this.part = lastPart();
+    }
+
+    /**
+     * Returns the file sink of the run of the given exchange.
+     *
+     * @param exchange the exchange of the run, or of one of its partitions or chunks.
+     * @throws IllegalStateException if the run has no file sink.
+     */
+    public static CsvFileSink get(Exchange exchange) {
+        var sink = exchange.getProperty(PROPERTY, CsvFileSink.class);
+        if (sink == null) {
+            throw new IllegalStateException("No file sink has been opened for the run");
+        }
+        return sink;
+    }
+
+    /**
+     * Writes an encoded chunk of records into the current file, rolling to a new file first if the current one
+     * has reached the maximum size, and flushes the compressed chunk into the file.
+     *
+     * @param records the CSV records of the chunk.
+     * @param count   the number of records.
+     * @throws IOException if the file cannot be created or written.
+     */
+    public synchronized void write(byte[] records, int count) throws IOException {
+        if (out == null || channel.size() >= maxFileSize) {
+            roll();
+        }
+        out.write(records);
+        out.flush();
+        rows += count;
+    }
+
+    /**
+     * Returns the number of records written by the sink.
+     */
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of files created by the sink.
+     */
+    public synchronized int getFiles() {
+        return files;
+    }
+
+    /**
+     * Completes and closes the current file.
+     *
+     * @throws IOException if the file cannot be completed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (out == null) {
+            return;
+        }
+        closeFile();
+        logger.info("Archived {} rows into {} files {}*.csv.gz in {}", rows, files, prefix, directory);
+    }
+
+    private void closeFile() throws IOException {
+        try {
+            out.close();
+        } finally {
+            out = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        if (out != null) {
+            closeFile();
+        }
+        var file = directory.resolve(prefix + String.format("%05d", ++part) + ".csv.gz");
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        // The sync flush of every chunk keeps the compression dictionary, so it costs only a few bytes per chunk.
+        out = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE, true);
+        out.write(header);
+        files++;
+        logger.debug("Writing the archive file {}", file);
+    }
+
+    /**
+     * Returns the last part number of the files of the table and year already in the directory, or zero.
+     */
+    private int lastPart() throws IOException {
+        var name = Pattern.compile(Pattern.quote(prefix) + "(\\d+)\\.csv\\.gz");
+        try (var files = Files.list(directory)) {
+            return files
+                .map(file -> name.matcher(file.getFileName().toString()))
+                .filter(Matcher::matches)
+                .mapToInt(matcher -> Integer.parseInt(matcher.group(1)))
+                .max()
+                .orElse(0);
+        }
+    }
+}
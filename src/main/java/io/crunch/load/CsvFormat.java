@@ -0,0 +1,50 @@
+package io.crunch.load;
+
+/**
+ * Formats row values as CSV fields compatible with the PostgreSQL {@code COPY ... (FORMAT csv)} defaults.
+ *
+ * <p>{@code null} is written as an empty unquoted field, every other value is written as a quoted field with
+ * the embedded quotes doubled, so that empty strings and values containing delimiters or line breaks survive.
+ * Numbers and booleans are written unquoted.</p>
+ */
+final class CsvFormat {
+
+    private CsvFormat() {
+    }
+
+    /**
+     * Appends the given values as one CSV record terminated by a line feed.
+     *
+     * @param record the builder the record is appended to.
+     * @param values the field values in column order.
+     */
+    static void appendRecord(StringBuilder record, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                record.append(',');
+            }
+            appendField(record, values[i]);
+        }
+        record.append('\n');
+    }
+
+    private static void appendField(StringBuilder record, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            record.append(value);
+            return;
+        }
+        var text = value.toString();
+        record.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                record.append('"');
+            }
+            record.append(c);
+        }
+        record.append('"');
+    }
+}
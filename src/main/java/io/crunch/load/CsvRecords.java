@@ -0,0 +1,80 @@
+package io.crunch.load;
+
+import io.crunch.row.ColumnMapping;
+import io.crunch.template.InsertStatement;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The CSV records of the columns of a target {@code INSERT} template.
+ *
+ * <p>The value of every column is read from the row by the placeholder at the same position of the template, or from
+ * the {@link ConstantColumns} of the run for the constant placeholders. The records are formatted by {@link CsvFormat}.</p>
+ */
+final class CsvRecords {
+
+    /** The placeholders of every column, in column order. */
+    private final String[] placeholders;
+
+    /** The positions of the columns read from the rows. */
+    private final int[] rowColumns;
+
+    /** The placeholders of the columns read from the rows, which are the keys of the column values in the rows. */
+    private final ColumnMapping rowPlaceholders;
+
+    /**
+     * Constructs the records of the given template.
+     *
+     * @param insert    the parsed target {@code INSERT} template.
+     * @param constants the placeholders of the constant columns, which are not read from the rows.
+     */
+    CsvRecords(InsertStatement insert, Collection<String> constants) {
+        this.placeholders = insert.placeholders().toArray(String[]::new);
+        this.rowColumns = IntStream.range(0, placeholders.length).filter(i -> !constants.contains(placeholders[i])).toArray();
+        this.rowPlaceholders = new ColumnMapping(Arrays.stream(rowColumns).mapToObj(i -> placeholders[i]).toArray(String[]::new));
+    }
+
+    /**
+     * Returns an encoder of rows, with the values of the constant columns of the run.
+     * The encoder reuses its buffers, and must be used by a single thread.
+     *
+     * @param constants the values of the constant columns by placeholder name.
+     */
+    Encoder encoder(Map<String, Object> constants) {
+        var values = new Object[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            values[i] = constants.get(placeholders[i]);
+        }
+        return new Encoder(values);
+    }
+
+    /** Encodes rows as CSV records. */
+    final class Encoder {
+
+        /** The values of the record being encoded, with the constant columns already set. */
+        private final Object[] values;
+
+        private final Object[] rowValues = new Object[rowColumns.length];
+
+        private Encoder(Object[] values) {
+            this.values = values;
+        }
+
+        /**
+         * Appends the given row as one CSV record terminated by a line feed.
+         *
+         * @param record the builder the record is appended to.
+         * @param row    the row, with the column values keyed by placeholder name.
+         */
+        void append(StringBuilder record, Map<String, Object> row) {
+            rowPlaceholders.copyValues(row, rowValues);
+            for (int i = 0; i < rowColumns.length; i++) {
+                values[rowColumns[i]] = rowValues[i];
+            }
+            CsvFormat.appendRecord(record, values);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.crunch.load;
+
+import io.crunch.extract.IdRange;
+import io.crunch.template.InsertStatement;
+import io.crunch.template.SqlTemplate;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A Camel {@link Processor} that archives an id range entirely on the database server
+ * with a single {@code INSERT ... SELECT} statement executed on the target database.
+ *
+ * <p>The source tables have to be readable from the target connection under the configured source schema; this is
+ * the case when the source is another schema of the target database, or when the source database is attached
+ * as a foreign schema with {@code postgres_fdw}. The source query template is executed with the search path set to
+ * the source schema, while the target table is qualified with the current schema of the target connection,
+ * so the same table names can be used on both sides.</p>
+ *
+ * <p>Every column of the target {@code INSERT} template is selected from the source query column named after its
+ * placeholder, unless the placeholder is a constant column of the route, such as the archiving year or time, which is
+ * bound as a parameter from the {@link ConstantColumns} of the run. The source query is restricted to the id range
+ * in the message body, its other placeholders are bound from the message headers, and the number of inserted rows is
+ * set as the {@value #INSERTED_ROWS} header. With an {@code ON CONFLICT} clause the rows already archived are updated
+ * or skipped, and only the rows inserted or updated are counted.</p>
+ */
+public class InsertSelectLoader implements Processor {
+
+    /** The header holding the number of rows inserted for the id range. */
+    public static final String INSERTED_ROWS = "archiveInsertedRows";
+
+    private final DataSource dataSource;
+
+    private final String sourceSchema;
+
+    private final SqlTemplate source;
+
+    private final InsertStatement target;
+
+    private final Set<String> constants;
+
+    private final String conflictClause;
+
+    private final TransactionHook hook;
+
+    /**
+     * Constructs a new {@link InsertSelectLoader}.
+     *
+     * @param dataSource     the target data source.
+     * @param sourceSchema   the schema, or comma separated list of schemas, of the source tables as seen from the target database.
+     * @param source         the keyset paginated source query template.
+     * @param target         the parsed target {@code INSERT} template.
+     * @param constants      the placeholders of the constant columns, which are not provided by the source query.
+     * @param conflictClause the {@code ON CONFLICT} clause appended to the statement, or an empty string.
+     * @param hook           the callback executed in the transaction of the statement before it is committed.
+     */
+    public InsertSelectLoader(DataSource dataSource, String sourceSchema, SqlTemplate source, InsertStatement target,
+                              Collection<String> constants, String conflictClause, TransactionHook hook) {
+        this.dataSource = dataSource;
+        this.sourceSchema = sourceSchema;
+        this.source = source;
+        this.target = target;
+        this.constants = Set.copyOf(constants);
+        this.conflictClause = conflictClause;
+        this.hook = hook;
+    }
+
+    /**
+     * Copies the rows of the id range in the message body from the source tables into the target table.
+     *
+     * @param exchange the {@link Exchange} containing the {@link IdRange} in its message body.
+     * @throws SQLException if the statement fails; the transaction is rolled back in this case.
+     * @throws IllegalStateException if a target column is neither returned by the source query nor constant.
+     */
+    @Override
+    public void process(Exchange exchange) throws SQLException {
+        var range = exchange.getIn().getBody(IdRange.class);
+        try (var connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                var targetSchema = getCurrentSchema(connection);
+                try (var statement = connection.createStatement()) {
+                    statement.execute("SET LOCAL search_path TO " + sourceSchema);
+                }
+                var insertSelect = SqlTemplate.compile(toInsertSelect(targetSchema, getSourceColumns(connection)));
+                int rows;
+                try (var statement = connection.prepareStatement(insertSelect.preparedStatementSql())) {
+                    var values = new HashMap<String, Object>(exchange.getIn().getHeaders());
+                    values.putAll(ConstantColumns.get(exchange));
+                    values.put("lastId", range.after());
+                    values.put("upperId", range.upTo());
+                    // The whole range is copied by one statement, so the page is not limited
+                    values.put("pageSize", Long.MAX_VALUE);
+                    insertSelect.binder().bind(statement, values);
+                    rows = statement.executeUpdate();
+                }
+                hook.beforeCommit(connection, exchange, range.upTo());
+                connection.commit();
+                exchange.getIn().setHeader(INSERTED_ROWS, rows);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private String toInsertSelect(String targetSchema, Set<String> sourceColumns) {
+        var select = target.placeholders().stream().map(placeholder -> {
+            if (constants.contains(placeholder)) {
+                return ":?" + placeholder;
+            }
+            if (sourceColumns.contains(placeholder)) {
+                return "s." + placeholder;
+            }
+            throw new IllegalStateException("Target value " + placeholder + " is neither selected by the source query nor constant");
+        }).collect(Collectors.joining(", "));
+        return "INSERT INTO \"" + targetSchema.replace("\"", "\"\"") + "\"." + target.table() + " (" + String.join(", ", target.columns()) + ")"
+            + " SELECT " + select + " FROM (" + source.sql() + ") s" + conflictClause;
+    }
+
+    private static String getCurrentSchema(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("SELECT current_schema()")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private Set<String> getSourceColumns(Connection connection) throws SQLException {
+        try (var statement = connection.prepareStatement(source.preparedStatementSql())) {
+            var metaData = statement.getMetaData();
+            var columns = new HashSet<String>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(metaData.getColumnLabel(i));
+            }
+            return columns;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.crunch.load;
+
+import io.crunch.template.ParameterBinder;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Camel {@link Processor} that loads a chunk of rows into the target database with a single JDBC batch.
+ *
+ * <p>The message body is expected to be a {@link List} of rows, where each row is a map of column names to values.
+ * Every row is bound to the prepared statement by the {@link ParameterBinder} of the SQL template, added to the batch,
+ * and the whole chunk is sent to the database with one {@link java.sql.PreparedStatement#executeBatch()} call.
+ * The {@link ConstantColumns} of the run are bound once per chunk, before the rows.
+ * The chunk is written on the connection of the {@link ChunkedTransaction} of the partition, which commits every
+ * {@code commitInterval} rows; if the chunk fails, the uncommitted rows are rolled back.
+ * The prepared statement is reused by all the chunks of the partition.</p>
+ */
+public class JdbcBatchLoader implements Processor {
+
+    private final ParameterBinder binder;
+
+    /**
+     * Constructs a new {@link JdbcBatchLoader}.
+     *
+     * @param binder the binder of the row values to the target SQL command.
+     */
+    public JdbcBatchLoader(ParameterBinder binder) {
+        this.binder = binder;
+    }
+
+    /**
+     * Loads the rows of the message body into the target database.
+     *
+     * @param exchange the {@link Exchange} containing the chunk of rows in its message body,
+     *                 and the {@link ChunkedTransaction} of the partition in its properties.
+     * @throws SQLException if the batch cannot be executed; the uncommitted rows are rolled back in this case.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void process(Exchange exchange) throws SQLException {
+        List<Map<String, Object>> rows = exchange.getIn().getBody(List.class);
+        var transaction = exchange.getProperty(ChunkedTransaction.PROPERTY, ChunkedTransaction.class);
+        try {
+            var statement = transaction.prepareStatement(binder.getSql());
+            binder.bindConstants(statement, ConstantColumns.get(exchange));
+            for (var row : rows) {
+                binder.bind(statement, row);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            transaction.written(exchange, rows);
+        } catch (SQLException | RuntimeException e) {
+            transaction.rollback(rows, e);
+            throw e;
+        }
+    }
+}
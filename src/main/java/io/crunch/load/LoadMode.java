@@ -0,0 +1,25 @@
+package io.crunch.load;
+
+/**
+ * The ways the transformed rows can be loaded into the target database, or archived into files.
+ */
+public enum LoadMode {
+
+    /** Executes the target {@code INSERT} template for every row, sending each chunk in one JDBC batch. */
+    INSERT,
+
+    /** Streams each chunk into the target table with PostgreSQL {@code COPY ... FROM STDIN}. */
+    COPY,
+
+    /**
+     * Executes the target {@code INSERT} template with an {@code ON CONFLICT} clause in JDBC batches,
+     * so the rows already in the target table are updated or skipped instead of failing the load.
+     */
+    UPSERT,
+
+    /**
+     * Writes the columns of the target {@code INSERT} template into gzip compressed CSV files, rolled by size,
+     * instead of the target database.
+     */
+    FILE
+}
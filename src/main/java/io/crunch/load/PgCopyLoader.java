@@ -0,0 +1,83 @@
+package io.crunch.load;
+
+import io.crunch.template.InsertStatement;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.postgresql.PGConnection;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Camel {@link Processor} that bulk loads a chunk of rows into a PostgreSQL target table with
+ * {@code COPY ... FROM STDIN}.
+ *
+ * <p>The table and the column list are taken from the target {@code INSERT} template, and the value of every column
+ * is read from the row by the placeholder at the same position, or from the {@link ConstantColumns} of the run for
+ * the constant placeholders. The rows are encoded as {@link CsvRecords} and streamed
+ * to the server through the pgjdbc {@link org.postgresql.copy.CopyManager} one by one, without building
+ * the whole chunk in memory. The chunk is written on the connection of the {@link ChunkedTransaction} of
+ * the partition, which commits every {@code commitInterval} rows; if the chunk fails, the uncommitted rows are
+ * rolled back.</p>
+ */
+public class PgCopyLoader implements Processor {
+
+    private final String copySql;
+
+    private final CsvRecords records;
+
+    /**
+     * Constructs a new {@link PgCopyLoader}.
+     *
+     * @param insert    the parsed target {@code INSERT} template, the target database must be PostgreSQL.
+     * @param constants the placeholders of the constant columns, which are not read from the rows.
+     */
+    public PgCopyLoader(InsertStatement insert, Collection<String> constants) {
+        this.copySql = "COPY " + insert.table() + " (" + String.join(", ", insert.columns()) + ") FROM STDIN WITH (FORMAT csv)";
+        this.records = new CsvRecords(insert, constants);
+    }
+
+    /**
+     * Copies the rows of the message body into the target table.
+     *
+     * @param exchange the {@link Exchange} containing the chunk of rows in its message body,
+     *                 and the {@link ChunkedTransaction} of the partition in its properties.
+     * @throws SQLException if the copy fails; the uncommitted rows are rolled back in this case.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void process(Exchange exchange) throws SQLException {
+        List<Map<String, Object>> rows = exchange.getIn().getBody(List.class);
+        var transaction = exchange.getProperty(ChunkedTransaction.PROPERTY, ChunkedTransaction.class);
+        try {
+            copy(transaction.getConnection(), rows, ConstantColumns.get(exchange));
+            transaction.written(exchange, rows);
+        } catch (SQLException | RuntimeException e) {
+            transaction.rollback(rows, e);
+            throw e;
+        }
+    }
+
+    private void copy(Connection connection, List<Map<String, Object>> rows, Map<String, Object> constants) throws SQLException {
+        var copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+        try {
+            var record = new StringBuilder(256);
+            var encoder = records.encoder(constants);
+            for (var row : rows) {
+                record.setLength(0);
+                encoder.append(record, row);
+                var bytes = record.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+}
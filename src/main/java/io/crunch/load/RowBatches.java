@@ -0,0 +1,52 @@
+package io.crunch.load;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Groups the rows of a source iterator into fixed size chunks.
+ *
+ * <p>The rows are pulled lazily from the underlying iterator, so only one chunk is held in memory at a time.
+ * The last chunk may contain fewer rows than the configured batch size.</p>
+ *
+ * @param <T> the type of the rows.
+ */
+public class RowBatches<T> implements Iterator<List<T>> {
+
+    private final Iterator<T> rows;
+
+    private final int batchSize;
+
+    /**
+     * Creates a new {@link RowBatches} over the given rows.
+     *
+     * @param rows      the rows to be grouped.
+     * @param batchSize the maximum number of rows in a chunk, must be positive.
+     */
+    public RowBatches(Iterator<T> rows, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.rows = rows;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rows.hasNext();
+    }
+
+    @Override
+    public List<T> next() {
+        if (!rows.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var batch = new ArrayList<T>(batchSize);
+        while (batch.size() < batchSize && rows.hasNext()) {
+            batch.add(rows.next());
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,73 @@
+package io.crunch.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The prepared statements of a single connection, kept open and reused by their SQL text until the cache is closed.
+ *
+ * <p>Preparing the statement of a template once per connection, instead of once per chunk, lets the PostgreSQL driver
+ * prepare it on the server after {@code prepareThreshold} executions, so the database parses and plans the statement
+ * once, and every further chunk only sends the parameters.</p>
+ *
+ * <p>The cache belongs to the connection of a partition, and is not thread-safe.</p>
+ */
+public final class StatementCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    private final StatementCacheStats stats;
+
+    /**
+     * Constructs a new, empty {@link StatementCache}.
+     *
+     * @param stats the counters of the reused and prepared statements.
+     */
+    public StatementCache(StatementCacheStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Returns the prepared statement of the given SQL command on the given connection, preparing it on first use.
+     * A reused statement has an empty batch, and keeps the parameters it was last executed with.
+     *
+     * @param connection the connection of the cache.
+     * @param sql        the SQL command.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        var statement = statements.get(sql);
+        if (statement != null) {
+            stats.hit();
+            statement.clearBatch();
+            return statement;
+        }
+        stats.miss();
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * Closes the cached statements.
+     */
+    @Override
+    public void close() {
+        for (var statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.warn("An issue occurred while closing a cached statement", e);
+            }
+        }
+        statements.clear();
+    }
+}
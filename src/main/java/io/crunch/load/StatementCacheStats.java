@@ -0,0 +1,43 @@
+package io.crunch.load;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the prepared statements reused from, and added to, the {@link StatementCache}s of a route.
+ *
+ * <p>One instance is shared by the partitions of the route, so the counters are updated concurrently.</p>
+ */
+public final class StatementCacheStats {
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Records a statement reused from a cache.
+     */
+    public void hit() {
+        hits.increment();
+    }
+
+    /**
+     * Records a statement prepared and added to a cache.
+     */
+    public void miss() {
+        misses.increment();
+    }
+
+    /**
+     * Returns the number of statements reused from the caches.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of statements prepared by the caches.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,28 @@
+package io.crunch.load;
+
+import org.apache.camel.Exchange;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A callback executed by the loaders on the target connection after the rows of an exchange have been written,
+ * but before the transaction is committed, so that any bookkeeping commits or rolls back together with the rows.
+ */
+@FunctionalInterface
+public interface TransactionHook {
+
+    /** A hook that does nothing. */
+    TransactionHook NONE = (connection, exchange, lastKey) -> {
+    };
+
+    /**
+     * Called before the load transaction is committed.
+     *
+     * @param connection the connection of the target database the rows were written with.
+     * @param exchange   the {@link Exchange} whose rows were written.
+     * @param lastKey    the key of the last row written in the transaction.
+     * @throws SQLException if the transaction has to be rolled back.
+     */
+    void beforeCommit(Connection connection, Exchange exchange, long lastKey) throws SQLException;
+}
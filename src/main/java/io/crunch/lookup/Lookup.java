@@ -0,0 +1,11 @@
+package io.crunch.lookup;
+
+/**
+ * A column of the archived rows resolved from a dimension table instead of being joined by the source query.
+ *
+ * @param keyColumn        the column of the rows holding the id of the dimension row, e.g. {@code u_id}.
+ * @param valueColumn      the column of the rows receiving the value of the dimension row, e.g. {@code u_code}.
+ * @param templateFileName the query template of the dimension table, returning the id and the value of every row.
+ */
+public record Lookup(String keyColumn, String valueColumn, String templateFileName) {
+}
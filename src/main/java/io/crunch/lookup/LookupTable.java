@@ -0,0 +1,95 @@
+package io.crunch.lookup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * An in-memory copy of a small dimension table, mapping the ids of its rows to the values of one of its columns,
+ * e.g. the ids of the universities to their codes.
+ *
+ * <p>The ids are kept in a sorted {@code long} array searched by binary search, with the values in a parallel array,
+ * so a lookup neither boxes nor hashes the id. The table is not modified after it is loaded, and can be read by
+ * the partitions of a run concurrently.</p>
+ */
+public final class LookupTable {
+
+    private final long[] ids;
+
+    private final Object[] values;
+
+    private LookupTable(long[] ids, Object[] values) {
+        this.ids = ids;
+        this.values = values;
+    }
+
+    /**
+     * Creates a lookup table of the given ids and values.
+     *
+     * @param ids    the ids, in any order.
+     * @param values the values of the ids, in the same order.
+     * @throws IllegalArgumentException if the arrays differ in length, or an id is repeated.
+     */
+    public static LookupTable of(long[] ids, Object[] values) {
+        if (ids.length != values.length) {
+            throw new IllegalArgumentException("The lookup table has " + ids.length + " ids and " + values.length + " values");
+        }
+        var order = IntStream.range(0, ids.length).boxed()
+            .sorted(Comparator.comparingLong(i -> ids[i]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        var sortedIds = new long[ids.length];
+        var sortedValues = new Object[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = ids[order[i]];
+            sortedValues[i] = values[order[i]];
+            if (i > 0 && sortedIds[i] == sortedIds[i - 1]) {
+                throw new IllegalArgumentException("The id " + sortedIds[i] + " is repeated in the lookup table");
+            }
+        }
+        return new LookupTable(sortedIds, sortedValues);
+    }
+
+    /**
+     * Loads a lookup table with the given query, whose first column is the id and second column is the value of a row.
+     *
+     * @param connection the connection to the database of the dimension table.
+     * @param sql        the query of the dimension table.
+     * @throws SQLException if the query fails.
+     * @throws IllegalArgumentException if an id is returned more than once.
+     */
+    public static LookupTable load(Connection connection, String sql) throws SQLException {
+        var ids = new long[16];
+        var values = new Object[16];
+        int size = 0;
+        try (var statement = connection.createStatement(); var resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                ids[size] = resultSet.getLong(1);
+                values[size] = resultSet.getObject(2);
+                size++;
+            }
+        }
+        return of(Arrays.copyOf(ids, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * Returns the value of the given id, or {@code null} if the table has no row with the id.
+     */
+    public Object get(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? values[index] : null;
+    }
+
+    /**
+     * Returns the number of rows of the table.
+     */
+    public int size() {
+        return ids.length;
+    }
+}
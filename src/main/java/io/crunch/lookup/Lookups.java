@@ -0,0 +1,94 @@
+package io.crunch.lookup;
+
+import org.apache.camel.Exchange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dimension tables of an archive run, loaded into {@link LookupTable}s once when the run starts.
+ *
+ * <p>The lookups are kept in the {@value #PROPERTY} exchange property, which the partitions and chunks inherit,
+ * and resolve the columns of the extracted rows in the transformation, so the source query reads the fact table
+ * without joining the dimension tables.</p>
+ */
+public final class Lookups {
+
+    /** The exchange property holding the lookups of the run. */
+    public static final String PROPERTY = "archiveLookups";
+
+    /** The lookups of a run without dimension tables. */
+    public static final Lookups NONE = new Lookups(List.of(), List.of());
+
+    private final String[] keyColumns;
+
+    private final String[] valueColumns;
+
+    private final LookupTable[] tables;
+
+    /**
+     * Constructs new {@link Lookups}.
+     *
+     * @param lookups the columns resolved from the dimension tables.
+     * @param tables  the loaded dimension tables, in the order of the lookups.
+     */
+    public Lookups(List<Lookup> lookups, List<LookupTable> tables) {
+        if (lookups.size() != tables.size()) {
+            throw new IllegalArgumentException(lookups.size() + " lookups are given with " + tables.size() + " tables");
+        }
+        this.keyColumns = lookups.stream().map(Lookup::keyColumn).toArray(String[]::new);
+        this.valueColumns = lookups.stream().map(Lookup::valueColumn).toArray(String[]::new);
+        this.tables = tables.toArray(LookupTable[]::new);
+    }
+
+    /**
+     * Returns the lookups of the run of the given exchange.
+     *
+     * @param exchange the exchange of the run, or of one of its partitions or chunks.
+     * @return the lookups, {@link #NONE} if the run has no dimension tables.
+     */
+    public static Lookups get(Exchange exchange) {
+        var lookups = exchange.getProperty(PROPERTY, Lookups.class);
+        return lookups != null ? lookups : NONE;
+    }
+
+    /**
+     * Sets the value columns of the given rows to the values of their key columns in the dimension tables.
+     *
+     * <p>A row whose key is {@code null} or not found in a dimension table is left out of the result, as the inner
+     * join of the dimension table would leave it out of the source query.</p>
+     *
+     * @param rows the rows, {@link io.crunch.row.Row}s with a slot for the value columns, or any other mutable maps.
+     * @return the resolved rows, in the given order; the given list itself if every row is resolved.
+     */
+    public <T extends Map<String, Object>> List<T> enrich(List<T> rows) {
+        if (tables.length == 0) {
+            return rows;
+        }
+        List<T> resolved = null;
+        for (int r = 0; r < rows.size(); r++) {
+            var row = rows.get(r);
+            if (resolve(row)) {
+                if (resolved != null) {
+                    resolved.add(row);
+                }
+            } else if (resolved == null) {
+                resolved = new ArrayList<>(rows.subList(0, r));
+            }
+        }
+        return resolved != null ? resolved : rows;
+    }
+
+    private boolean resolve(Map<String, Object> row) {
+        for (int i = 0; i < tables.length; i++) {
+            var key = row.get(keyColumns[i]);
+            var value = key != null ? tables[i].get(((Number) key).longValue()) : null;
+            if (value == null) {
+                return false;
+            }
+            row.put(valueColumns[i], value);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,144 @@
+package io.crunch.metrics;
+
+import io.crunch.load.StatementCacheStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import java.util.List;
+
+/**
+ * Instruments the stages of the archive routes with Micrometer meters.
+ *
+ * <ul>
+ *   <li>{@code archive.rows} counts the rows extracted, transformed and loaded, tagged by route and stage.</li>
+ *   <li>{@code archive.stage.duration} times the source queries, the transformation and the target writes
+ *   of the chunks, tagged by route and stage.</li>
+ *   <li>{@code archive.batch.size} is the distribution of the number of rows in the loaded chunks, tagged by route.</li>
+ *   <li>{@code archive.statement.cache} counts the target statements reused from the statement caches of the partitions
+ *   ({@code hit}), and prepared ({@code miss}), tagged by route and result.</li>
+ * </ul>
+ *
+ * <p>The meters are exported with the Camel route metrics and the Agroal pool metrics, including the connection
+ * acquisition time, by the Prometheus registry on the HTTP server of the application.</p>
+ */
+@ApplicationScoped
+public class ArchiveMetrics {
+
+    /** The exchange property holding the started sample of the running source query. */
+    private static final String EXTRACT_SAMPLE = "archiveExtractSample";
+
+    private final MeterRegistry registry;
+
+    public ArchiveMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Returns a processor starting the timer of the source query, stopped by {@link #stopExtract(String)}.
+     */
+    public Processor startExtract() {
+        return exchange -> exchange.setProperty(EXTRACT_SAMPLE, Timer.start(registry));
+    }
+
+    /**
+     * Returns a processor stopping the timer of the source query started by {@link #startExtract()}.
+     *
+     * @param routeId the id of the route.
+     */
+    public Processor stopExtract(String routeId) {
+        return exchange -> {
+            var sample = exchange.getProperty(EXTRACT_SAMPLE, Timer.Sample.class);
+            if (sample != null) {
+                sample.stop(timer(routeId, "extract"));
+                exchange.removeProperty(EXTRACT_SAMPLE);
+            }
+        };
+    }
+
+    /**
+     * Wraps the transformation of a chunk, counting the extracted and the transformed rows, and timing the transformation.
+     * The rows the transformation leaves out of the chunk, e.g. those whose lookup key is not found, are counted as dropped.
+     *
+     * @param routeId     the id of the route.
+     * @param transformer the transformation of a chunk.
+     */
+    public Processor transform(String routeId, Processor transformer) {
+        var extracted = registry.counter("archive.rows", "route", routeId, "stage", "extracted");
+        var transformed = registry.counter("archive.rows", "route", routeId, "stage", "transformed");
+        var dropped = registry.counter("archive.rows", "route", routeId, "stage", "dropped");
+        var timer = timer(routeId, "transform");
+        return exchange -> {
+            int rows = size(exchange);
+            extracted.increment(rows);
+            timer.recordCallable(() -> {
+                transformer.process(exchange);
+                return null;
+            });
+            int transformedRows = size(exchange);
+            transformed.increment(transformedRows);
+            if (transformedRows < rows) {
+                dropped.increment(rows - transformedRows);
+            }
+        };
+    }
+
+    /**
+     * Wraps the load of a chunk, counting the loaded rows, timing the write and recording the size of the chunk.
+     *
+     * @param routeId the id of the route.
+     * @param loader  the load of a chunk.
+     */
+    public Processor load(String routeId, Processor loader) {
+        var loaded = registry.counter("archive.rows", "route", routeId, "stage", "loaded");
+        var batchSize = DistributionSummary.builder("archive.batch.size")
+            .description("The number of rows in the loaded chunks")
+            .baseUnit("rows")
+            .tag("route", routeId)
+            .register(registry);
+        var timer = timer(routeId, "load");
+        return exchange -> {
+            int rows = size(exchange);
+            timer.recordCallable(() -> {
+                loader.process(exchange);
+                return null;
+            });
+            loaded.increment(rows);
+            batchSize.record(rows);
+        };
+    }
+
+    /**
+     * Returns the counters of the statement caches of the route, exported as the {@code archive.statement.cache} counter.
+     *
+     * @param routeId the id of the route.
+     */
+    public StatementCacheStats statementCache(String routeId) {
+        var stats = new StatementCacheStats();
+        FunctionCounter.builder("archive.statement.cache", stats, StatementCacheStats::getHits)
+            .description("The target statements reused from, and prepared by, the statement caches")
+            .tags("route", routeId, "result", "hit")
+            .register(registry);
+        FunctionCounter.builder("archive.statement.cache", stats, StatementCacheStats::getMisses)
+            .description("The target statements reused from, and prepared by, the statement caches")
+            .tags("route", routeId, "result", "miss")
+            .register(registry);
+        return stats;
+    }
+
+    private Timer timer(String routeId, String stage) {
+        return Timer.builder("archive.stage.duration")
+            .description("The time spent in the stages of the archive routes")
+            .tag("route", routeId)
+            .tag("stage", stage)
+            .register(registry);
+    }
+
+    private static int size(Exchange exchange) {
+        return exchange.getIn().getBody(List.class).size();
+    }
+}
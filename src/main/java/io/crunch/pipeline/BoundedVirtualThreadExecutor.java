@@ -0,0 +1,84 @@
+package io.crunch.pipeline;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link ExecutorService} that runs every task on a new virtual thread, but at most {@code permits} tasks at a time.
+ *
+ * <p>The tasks of the archive block on JDBC calls, which virtual threads handle without tying up an OS thread each.
+ * The number of tasks touching the databases at the same time still has to stay within the connection pools,
+ * so a submitted task waits for a permit of a {@link Semaphore} on its own virtual thread before it runs.
+ * Submitting never blocks the caller.</p>
+ */
+public class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+
+    private final Semaphore permits;
+
+    /**
+     * Constructs a new {@link BoundedVirtualThreadExecutor}.
+     *
+     * @param name    the name prefix of the virtual threads.
+     * @param permits the maximum number of tasks running at the same time, must be positive.
+     */
+    public BoundedVirtualThreadExecutor(String name, int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Number of permits must be positive: " + permits);
+        }
+        this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        this.permits = new Semaphore(permits, true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // The executor is shut down, a task that never runs must not leave its caller waiting
+                if (command instanceof Future<?> future) {
+                    future.cancel(false);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
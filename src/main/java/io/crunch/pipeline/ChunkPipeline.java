@@ -0,0 +1,135 @@
+package io.crunch.pipeline;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.RuntimeCamelException;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Camel {@link Processor} that transforms and loads the chunks of rows in its message body in three overlapping stages.
+ *
+ * <ul>
+ *   <li>The reader, the calling thread, pulls the chunks from the iterator in the message body, that is, reads the
+ *   source database.</li>
+ *   <li>The transformers run the transformation of the chunks concurrently on the transformer executor.</li>
+ *   <li>The writer, a single task on the writer executor, loads the transformed chunks in their original order,
+ *   so the target transaction and the checkpoints of the partition see the rows in key order.</li>
+ * </ul>
+ *
+ * <p>The stages are connected by a bounded queue of {@code queueSize} chunks: when the writer falls behind, the reader
+ * blocks instead of reading further, so the memory used by a partition stays capped. Every chunk is processed on its
+ * own copy of the exchange. The first failure of any stage stops the pipeline and is rethrown.</p>
+ */
+public class ChunkPipeline implements Processor {
+
+    /** Marks the end of the chunks in the queue. */
+    private static final Future<Exchange> END = CompletableFuture.completedFuture(null);
+
+    private final Processor transformer;
+
+    private final Processor loader;
+
+    private final ExecutorService transformerExecutor;
+
+    private final ExecutorService writerExecutor;
+
+    private final int queueSize;
+
+    /**
+     * Constructs a new {@link ChunkPipeline}.
+     *
+     * @param transformer         the transformation of a chunk.
+     * @param loader              the load of a transformed chunk.
+     * @param transformerExecutor the executor the transformations run on, its size is the concurrency of the stage.
+     * @param writerExecutor      the executor the writer runs on, it needs a thread for every concurrently running pipeline.
+     * @param queueSize           the maximum number of chunks read but not yet loaded.
+     */
+    public ChunkPipeline(Processor transformer, Processor loader, ExecutorService transformerExecutor,
+                         ExecutorService writerExecutor, int queueSize) {
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("Queue size must be positive: " + queueSize);
+        }
+        this.transformer = transformer;
+        this.loader = loader;
+        this.transformerExecutor = transformerExecutor;
+        this.writerExecutor = writerExecutor;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Transforms and loads every chunk of the message body, and returns when the last one has been loaded.
+     *
+     * @param exchange the {@link Exchange} containing an iterator of chunks in its message body.
+     * @throws Exception the first failure of the reader, a transformation or the writer.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void process(Exchange exchange) throws Exception {
+        Iterator<List<?>> chunks = exchange.getIn().getBody(Iterator.class);
+        BlockingQueue<Future<Exchange>> queue = new ArrayBlockingQueue<>(queueSize);
+        Future<?> writer = writerExecutor.submit(() -> write(queue));
+        Exception failure = null;
+        try {
+            while (!writer.isDone() && chunks.hasNext()) {
+                var chunk = exchange.copy();
+                chunk.getIn().setBody(chunks.next());
+                var transformed = transformerExecutor.submit(() -> {
+                    transformer.process(chunk);
+                    return chunk;
+                });
+                // Blocks while the queue is full, unless the writer has stopped
+                while (!queue.offer(transformed, 100, TimeUnit.MILLISECONDS) && !writer.isDone()) {
+                    // Waits for the writer to take a chunk
+                }
+            }
+        } catch (Exception e) {
+            failure = e;
+        }
+        // The writer loads the chunks queued so far, so it never uses the target connection after this method returns
+        while (!writer.isDone() && !queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+            // Waits for the writer to make room for the end marker
+        }
+        try {
+            writer.get();
+        } catch (ExecutionException e) {
+            var cause = unwrap(e);
+            if (failure == null) {
+                failure = cause;
+            } else {
+                failure.addSuppressed(cause);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Void write(BlockingQueue<Future<Exchange>> queue) throws Exception {
+        for (var next = queue.take(); next != END; next = queue.take()) {
+            Exchange chunk;
+            try {
+                chunk = next.get();
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+            loader.process(chunk);
+            if (chunk.getException() != null) {
+                throw chunk.getException();
+            }
+        }
+        return null;
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        return e.getCause() instanceof Exception cause ? cause : new RuntimeCamelException(e.getCause());
+    }
+}
@@ -0,0 +1,110 @@
+package io.crunch.progress;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs the aggregated progress of an archive run, instead of a line per row.
+ *
+ * <p>The partitions report every loaded chunk with the number of rows and the width of the id range the chunk covers.
+ * A progress line with the number of loaded rows, the throughput, and the estimated time remaining is logged every
+ * {@code everyRows} rows or every {@code interval}, whichever comes first. The remaining time is estimated from the
+ * part of the id range of the run already covered, assuming the ids are evenly distributed.</p>
+ *
+ * <p>The reporter is thread-safe, the partitions of a run may report concurrently.</p>
+ */
+public class ProgressReporter {
+
+    private final Logger logger;
+
+    private final String rowsName;
+
+    private final long everyRows;
+
+    private final long intervalNanos;
+
+    private long idSpan;
+
+    private long startTime;
+
+    private long rows;
+
+    private long ids;
+
+    private long reportedRows;
+
+    private long reportTime;
+
+    /**
+     * Constructs a new {@link ProgressReporter}.
+     *
+     * @param logger    the logger of the route.
+     * @param rowsName  the name of the rows in the log.
+     * @param everyRows the number of rows after which the progress is logged.
+     * @param interval  the time after which the progress is logged.
+     */
+    public ProgressReporter(Logger logger, String rowsName, long everyRows, Duration interval) {
+        this.logger = logger;
+        this.rowsName = rowsName;
+        this.everyRows = everyRows;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Starts a new run.
+     *
+     * @param idSpan the number of ids in the ranges of the partitions of the run.
+     */
+    public synchronized void start(long idSpan) {
+        this.idSpan = idSpan;
+        this.startTime = System.nanoTime();
+        this.reportTime = startTime;
+        this.rows = 0;
+        this.ids = 0;
+        this.reportedRows = 0;
+    }
+
+    /**
+     * Records a loaded chunk, and logs the progress if it is due.
+     *
+     * @param chunkRows the number of rows of the chunk.
+     * @param chunkIds  the number of ids covered by the chunk.
+     */
+    public synchronized void advance(long chunkRows, long chunkIds) {
+        rows += chunkRows;
+        ids += chunkIds;
+        long now = System.nanoTime();
+        if (rows - reportedRows >= everyRows || now - reportTime >= intervalNanos) {
+            report(now);
+        }
+    }
+
+    /**
+     * Logs the summary of the run.
+     */
+    public synchronized void finish() {
+        long elapsed = System.nanoTime() - startTime;
+        logger.info("-> Archived {} {} in {} s, {} rows/s", rows, rowsName,
+            TimeUnit.NANOSECONDS.toSeconds(elapsed), rate(rows, elapsed));
+    }
+
+    private void report(long now) {
+        long elapsed = now - startTime;
+        if (idSpan > 0 && ids > 0) {
+            double done = Math.min(1.0, (double) ids / idSpan);
+            long remaining = (long) (elapsed / done) - elapsed;
+            logger.info("-> Archived {} {}, {} rows/s, {}% of the id range, ETA {} s", rows, rowsName, rate(rows, elapsed),
+                Math.round(done * 100), TimeUnit.NANOSECONDS.toSeconds(remaining));
+        } else {
+            logger.info("-> Archived {} {}, {} rows/s", rows, rowsName, rate(rows, elapsed));
+        }
+        reportedRows = rows;
+        reportTime = now;
+    }
+
+    private static long rate(long rows, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : Math.round(rows * 1e9 / elapsedNanos);
+    }
+}
@@ -1,9 +1,13 @@
 package io.crunch.route;
 
+import io.crunch.lookup.Lookup;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.apache.camel.Exchange;
+import org.apache.camel.LoggingLevel;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -12,12 +16,20 @@ import java.util.Map;
  * <p>This route performs the following operations:</p>
  * <ul>
  *   <li>Extracts data from a source database using a SQL query defined in a template file.</li>
- *   <li>Transforms the extracted data to include additional fields, such as the archiving time and year.</li>
- *   <li>Loads the transformed data into a target database using a parameterized SQL query.</li>
+ *   <li>Adds the constant columns of the run, the archiving time and year, which are fixed once when the run starts.</li>
+ *   <li>Loads the transformed data into a target database using a parameterized SQL query executed in JDBC batches, or bulk loaded with PostgreSQL {@code COPY}.</li>
  * </ul>
  *
- * <p>The route is triggered based on a configuration property and executes a one-time operation.</p>
- * @apiNote This implementation does not support batch processing.
+ * <p>The route is triggered based on a configuration property and executes a one-time operation.
+ * The extracted rows are transformed and loaded in chunks of {@code app.archive.batch-size} rows,
+ * each chunk is written to the target database with a single JDBC batch, or a single {@code COPY} when
+ * {@code app.archive.load-mode} is {@code copy}, or archived into gzip compressed CSV files instead of the target database
+ * when it is {@code file}.
+ * When the source tables are reachable from the target database, the rows can also be copied on the database server
+ * with {@code app.archive.pushdown.enabled}, without flowing through the JVM.
+ * With {@code app.archive.delta.watermark} only the rows newer than the already archived ones are extracted.
+ * The university and department codes are looked up in tables loaded once per run, instead of being joined by the source query,
+ * unless {@code app.archive.lookup.enabled} is turned off.</p>
  */
 @ApplicationScoped
 public class ApplicantRoute extends RouteBase {
@@ -25,18 +37,43 @@ public class ApplicantRoute extends RouteBase {
     /** The name of the SQL template file for querying the source database. */
     private static final String SOURCE_QUERY_TEMPLATE = "applicant-source-query.sql";
 
+    /** The name of the SQL template file for querying the source table alone, with the university and department codes looked up. */
+    private static final String FACT_QUERY_TEMPLATE = "applicant-fact-query.sql";
+
+    /** The name of the SQL template file for querying the id and code of the universities. */
+    private static final String UNIVERSITY_LOOKUP_TEMPLATE = "university-lookup.sql";
+
+    /** The name of the SQL template file for querying the id and code of the departments. */
+    private static final String DEPARTMENT_LOOKUP_TEMPLATE = "department-lookup.sql";
+
     /** The name of the SQL template file for the target database insertion query. */
     private static final String TARGET_QUERY_TEMPLATE = "applicant-target-query.sql";
 
+    /** The name of the SQL template file for querying the id range of the source table. */
+    private static final String RANGE_QUERY_TEMPLATE = "applicant-range-query.sql";
+
+    /** Whether the source rows are streamed from a database cursor instead of being loaded into a list. */
+    @ConfigProperty(name = "app.archive.applicant.streaming", defaultValue = "false")
+    boolean streaming;
+
     /**
      * Configures the Camel route for loading applicant data.
      *
      * <p>This method sets up the route to:
      * <ul>
-     *   <li>Start with a timer-based trigger (if enabled via configuration).</li>
-     *   <li>Extract data from the source database using the source query template.</li>
-     *   <li>Transform the data to include additional fields.</li>
-     *   <li>Load the transformed data into the target database using the target prepared statement template.</li>
+     *   <li>Start with a timer-based trigger (if enabled via configuration), or when called by the {@code archive-all} route.</li>
+     *   <li>Load the codes of the universities and departments, unless {@code app.archive.lookup.enabled} is turned off.</li>
+     *   <li>Read the watermark of the archived rows, if the run is incremental.</li>
+     *   <li>Split the id range of the source into {@code app.archive.partitions} partitions processed concurrently.</li>
+     *   <li>Copy each partition with a single server-side {@code INSERT ... SELECT} when {@code app.archive.pushdown.enabled} is set,
+     *   otherwise:</li>
+     *   <li>Page through each partition by keyset pagination on the id, {@code app.archive.page-size} rows at a time.</li>
+     *   <li>Extract data from the source database using the source query template, optionally streaming the result;
+     *   the query reads the applicant table alone when the codes are looked up.</li>
+     *   <li>Transform the data to be loaded with the constant columns of the run, optionally pipelined with the extraction and the load.</li>
+     *   <li>Group the data into chunks of {@code app.archive.batch-size} rows.</li>
+     *   <li>Load the transformed data into the target database using the target prepared statement template in JDBC batches,
+     *   committing every {@code app.archive.commit-interval} rows.</li>
      * </ul>
      * </p>
      *
@@ -45,43 +82,97 @@ public class ApplicantRoute extends RouteBase {
     @Override
     public void configure() throws Exception {
         if(isTriggered("load-applicant")) {
-            // delay: The number of milliseconds to wait before the first event is generated. delay=-1 means the route is triggered immediately
-            // repeatCount: The number of times the event is generated. repeatCount=1 means the route is triggered only once
-            from("timer://load-applicant?delay=-1&repeatCount=1")
+            var partitions = getPartitions();
+            var sourceTemplate = isLookupEnabled() ? FACT_QUERY_TEMPLATE : SOURCE_QUERY_TEMPLATE;
+            // The route is started once by a timer, or by the archive-all route
+            var partition = from(getTrigger("load-applicant"))
                 .routeId("applicant-route")
+                // The partitions and chunks are recorded by the id of this route, also when the run was started by another route.
+                .setProperty(ROUTE_ID, constant("applicant-route"))
+                // The archiving time and year are fixed once for the whole run, and bound by the loaders instead of added to every row.
+                .process(this::fixConstantColumns)
+                // The small dimension tables are loaded once for the run, instead of being joined to every page of the source.
+                .process(this::loadLookups)
+                // In file load mode the rows of the run are archived into compressed files instead of the target database.
+                .process(getFileSinkOpener(TARGET_QUERY_TEMPLATE))
+                // An incremental run continues after the watermark of the rows already archived for the year.
+                .process(getWatermarkReader(TARGET_QUERY_TEMPLATE))
                 .setBody()
-                    .simple(getSqlTemplate(SOURCE_QUERY_TEMPLATE))
-                    .log("-> Extracting data from Source Database {{quarkus.datasource.source.jdbc.url}}, SQL command: ${body}")
-                .to("jdbc:source")
-                .split(body())
-                .process(this::transform)
-                    .log("-> Transforming applicant: ${body[app_id]}")
-                    // The query parameters are set as headers in the message, and the SQL command is set as the message body.
-                    .setHeaders(getJdbcParameters(TARGET_QUERY_TEMPLATE))
-                    .setBody(constant(getSqlTemplate(TARGET_QUERY_TEMPLATE)))
-                    .log("-> Loading transformed data in target database, SQL command: ${body}")
-                // useHeadersAsParameters: Set this option to true to use the prepareStatementStrategy with named parameters.
-                // This allows to define queries with named placeholders, and use headers with the dynamic values for the query placeholders.
-                .to("jdbc:target?useHeadersAsParameters=true");
+                    .simple(getSqlTemplate(RANGE_QUERY_TEMPLATE))
+                // The range of an incremental run by creation time only covers the rows created after the watermark.
+                .to("jdbc:source?outputType=SelectOne&useHeadersAsParameters=true")
+                // The id range of the source is split into partitions, which are extracted and loaded concurrently.
+                .process(exchange -> toPartitions(exchange, partitions))
+                .split(body()).parallelProcessing(partitions > 1).executorService(getPartitionExecutor("applicant-route", partitions)).stopOnException()
+                    .log("-> Archiving partition ${body}");
+            if (isPushdownEnabled()) {
+                // The rows are loaded as extracted, only the constant columns are added, so the partition is copied on the database server
+                // without reading rows into the JVM.
+                partition
+                    .process(getInsertSelectLoader(SOURCE_QUERY_TEMPLATE, TARGET_QUERY_TEMPLATE, "applicants"))
+                    .log("-> Inserted ${header.archiveInsertedRows} applicants in target database")
+                .end()
+                .process(this::finishProgress);
+                return;
+            }
+            var page = partition
+                    .process(this::openCursor)
+                    // The chunks of the partition are loaded on one target connection, committed every commit interval.
+                    .process(this::beginTransaction)
+                    // The partition is read page by page, each page starts after the last id of the previous one.
+                    .loopDoWhile(this::hasMorePages)
+                        .process(this::nextPage)
+                        .setBody()
+                            .simple(getSqlTemplate(sourceTemplate))
+                            .log(LoggingLevel.DEBUG, "-> Extracting page after id ${header.lastId} from Source Database {{quarkus.datasource.source.jdbc.url}}, SQL command: ${body}");
+            var chunks = extract(page, "applicant-route", sourceTemplate, TARGET_QUERY_TEMPLATE, streaming)
+                        // The extracted rows are grouped into chunks, and each chunk is transformed and loaded as one unit.
+                        .process(this::toBatches);
+            transformAndLoad(chunks, "applicant-route", partitions, this::transform, TARGET_QUERY_TEMPLATE, "applicants")
+                    .end()
+                    .process(this::commitTransaction)
+                .end()
+                .process(this::finishProgress);
         }
     }
 
     /**
-     * Transforms the data extracted from the source database.
-     *
-     * <p>The transformation adds the following fields to the source data:</p>
+     * Returns the constant columns of the applicants archived by a run, which are bound by the loaders instead of
+     * being added to every row:
      * <ul>
-     *   <li><b>archiving_time</b>: The current timestamp when the data is processed.</li>
+     *   <li><b>archiving_time</b>: The time the run started.</li>
      *   <li><b>year</b>: The year context for the data.</li>
      * </ul>
+     */
+    @Override
+    Map<String, Object> getConstantColumns() {
+        return Map.of("year", year, "archiving_time", LocalDateTime.now());
+    }
+
+    /**
+     * Returns the lookups of the university and department codes of the rows, by the ids read from the source table.
+     */
+    @Override
+    List<Lookup> getLookups() {
+        return List.of(
+            new Lookup("u_id", "u_code", UNIVERSITY_LOOKUP_TEMPLATE),
+            new Lookup("d_id", "d_code", DEPARTMENT_LOOKUP_TEMPLATE));
+    }
+
+    /**
+     * Transforms the data extracted from the source database.
      *
-     * @param exchange the {@link Exchange} containing the extracted data in its message body.
+     * <p>The rows are loaded as extracted, with the codes of the {@linkplain #getLookups() lookups} already resolved,
+     * together with the {@linkplain #getConstantColumns() constant columns} of the run,
+     * so the transformation only logs the extracted rows at {@code DEBUG} level.</p>
+     *
+     * @param exchange the {@link Exchange} containing a chunk of the extracted data in its message body.
      */
     @SuppressWarnings("unchecked")
-    private void transform(Exchange exchange) {
-        Map<String, Object> sourceData = exchange.getIn().getBody(Map.class);
-        log.info("-> Extract applicant: {}", sourceData.get("id"));
-        sourceData.put("archiving_time", LocalDateTime.now());
-        sourceData.put("year", year);
+    void transform(Exchange exchange) {
+        if (log.isDebugEnabled()) {
+            List<Map<String, Object>> batch = exchange.getIn().getBody(List.class);
+            batch.forEach(row -> log.debug("-> Extract applicant: {}", row.get("id")));
+        }
     }
 }
@@ -0,0 +1,92 @@
+package io.crunch.route;
+
+import io.quarkus.runtime.Quarkus;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.apache.camel.Exchange;
+import org.apache.camel.main.MainDurationEventNotifier;
+
+/**
+ * A Camel route archiving several tables in one run of the application.
+ *
+ * <p>The route is triggered when {@code app.archive.command} is {@value RouteBase#ARCHIVE_ALL}. It calls the archive
+ * routes of the commands listed in {@code app.archive.all.stages}, which are started by a {@code direct} endpoint
+ * instead of a timer in this case. The stages are separated by semicolons and run one after the other, so a table can
+ * be archived after the tables it depends on; the commands of a stage are separated by commas and their routes run
+ * concurrently, e.g. {@code load-applicant,load-applicant-message} archives both tables at the same time, and
+ * {@code load-applicant;load-applicant-message} archives the messages after the applicants.</p>
+ *
+ * <p>Every route gets its own copy of the exchange, and the run stops at the first stage that fails.
+ * When the last stage completes or a stage fails, the application exits, with a non-zero exit code on failure.
+ * The shutdown after {@code camel.main.durationMaxMessages} messages is disabled when the run starts, as the partitions
+ * of the routes complete messages of their own long before the last stage does.</p>
+ */
+@ApplicationScoped
+public class ArchiveOrchestrator extends RouteBase {
+
+    /**
+     * Configures the Camel route running the stages of the archive.
+     *
+     * <p>This method sets up the route to:
+     * <ul>
+     *   <li>Start with a timer-based trigger (if enabled via configuration).</li>
+     *   <li>Disable the shutdown after {@code camel.main.durationMaxMessages} messages.</li>
+     *   <li>Call the routes of every stage, concurrently if the stage has more than one route, and wait for them to complete.</li>
+     *   <li>Exit the application when the stages have completed or one of them has failed.</li>
+     * </ul>
+     * </p>
+     */
+    @Override
+    public void configure() {
+        if (ARCHIVE_ALL.equalsIgnoreCase(command)) {
+            var stages = getStages();
+            if (stages.isEmpty()) {
+                throw new IllegalArgumentException("No archive routes are set in app.archive.all.stages");
+            }
+            var route = from("timer://archive-all?delay=-1&repeatCount=1")
+                .routeId("archive-all-route")
+                .process(this::disableDurationShutdown)
+                .doTry();
+            for (int i = 0; i < stages.size(); i++) {
+                var stage = stages.get(i);
+                route
+                    .log("-> Archiving stage " + (i + 1) + "/" + stages.size() + ": " + String.join(", ", stage))
+                    .multicast().parallelProcessing(stage.size() > 1).stopOnException()
+                        // block=false: A command without an archive route fails the run at once, instead of waiting for the route to start
+                        .to(stage.stream().map(routeCommand -> "direct:" + routeCommand + "?block=false").toArray(String[]::new))
+                    .end();
+            }
+            route
+                    .log("-> Archived all stages")
+                // A failure of any stage ends the run
+                .doCatch(Exception.class)
+                .end()
+                .process(this::exit);
+        }
+    }
+
+    /**
+     * Removes the event notifier shutting down the application after {@code camel.main.durationMaxMessages} completed
+     * messages, which counts the completed partitions and chunks of the routes as well.
+     */
+    private void disableDurationShutdown(Exchange exchange) {
+        var managementStrategy = exchange.getContext().getManagementStrategy();
+        managementStrategy.getEventNotifiers().stream()
+            .filter(MainDurationEventNotifier.class::isInstance)
+            .toList()
+            .forEach(managementStrategy::removeEventNotifier);
+    }
+
+    /**
+     * Exits the application after the run, with exit code 1 if it has failed.
+     */
+    private void exit(Exchange exchange) {
+        // The exception of the failed run is moved to a property when it is caught
+        var exception = exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Exception.class);
+        if (exception != null) {
+            log.error("-> Archiving failed", exception);
+            Quarkus.asyncExit(1);
+        } else {
+            Quarkus.asyncExit();
+        }
+    }
+}
@@ -1,35 +1,714 @@
 package io.crunch.route;
 
+import io.agroal.api.AgroalDataSource;
+import io.crunch.checkpoint.CheckpointStore;
+import io.crunch.extract.IdRange;
+import io.crunch.extract.JdbcStreamReader;
+import io.crunch.extract.KeysetCursor;
+import io.crunch.extract.Watermark;
+import io.crunch.load.ChunkedTransaction;
+import io.crunch.load.ConstantColumns;
+import io.crunch.load.CsvFileLoader;
+import io.crunch.load.CsvFileSink;
+import io.crunch.load.InsertSelectLoader;
+import io.crunch.load.JdbcBatchLoader;
+import io.crunch.load.LoadMode;
+import io.crunch.load.PgCopyLoader;
+import io.crunch.load.RowBatches;
+import io.crunch.load.StatementCacheStats;
+import io.crunch.load.TransactionHook;
+import io.crunch.lookup.Lookup;
+import io.crunch.lookup.LookupTable;
+import io.crunch.lookup.Lookups;
+import io.crunch.metrics.ArchiveMetrics;
+import io.crunch.pipeline.BoundedVirtualThreadExecutor;
+import io.crunch.pipeline.ChunkPipeline;
+import io.crunch.progress.ProgressReporter;
+import io.crunch.row.Row;
+import io.crunch.template.ConflictAction;
+import io.crunch.template.InsertStatement;
 import io.crunch.template.SqlTemplates;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.runtime.configuration.MemorySize;
 import jakarta.inject.Inject;
-import org.apache.camel.Expression;
+import org.apache.camel.Exchange;
+import org.apache.camel.LoggingLevel;
+import org.apache.camel.Processor;
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.ProcessorDefinition;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.apache.camel.support.service.ServiceSupport;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class RouteBase extends RouteBuilder {
 
+    /** The exchange property holding the {@link KeysetCursor} of the running extraction. */
+    static final String KEYSET_CURSOR = "archiveKeysetCursor";
+
+    /** The exchange property holding the last id of the partition loaded into the target database. */
+    static final String LOADED_ID = "archiveLoadedId";
+
+    /** The header holding the largest id already archived for the year, when the run is incremental by id. */
+    static final String ARCHIVED_ID = "archivedId";
+
+    /**
+     * The exchange property holding the id of the archive route of the run. It differs from the route the exchange was
+     * created by when the route is run by the {@link ArchiveOrchestrator}.
+     */
+    static final String ROUTE_ID = "archiveRouteId";
+
+    /** The command running the archive routes of {@code app.archive.all.stages} in one run. */
+    static final String ARCHIVE_ALL = "archive-all";
+
+    /** The header bound to the {@code :?createdAfter} placeholder of the source queries; {@code null} extracts every row. */
+    static final String CREATED_AFTER = "createdAfter";
+
+    /** The header bound to the {@code :?createdAfterId} placeholder, the id of the latest row created at {@value #CREATED_AFTER}. */
+    static final String CREATED_AFTER_ID = "createdAfterId";
+
     @Inject
     SqlTemplates sqlTemplates;
 
+    @Inject
+    CheckpointStore checkpointStore;
+
+    @Inject
+    ArchiveMetrics metrics;
+
+    @Inject
+    @DataSource("source")
+    AgroalDataSource sourceDataSource;
+
+    @Inject
+    @DataSource("target")
+    AgroalDataSource targetDataSource;
+
     @ConfigProperty(name = "app.archive.command", defaultValue = "connection-test")
     String command;
 
+    @ConfigProperty(name = "app.archive.all.stages", defaultValue = "load-applicant;load-applicant-message")
+    String stages;
+
     @ConfigProperty(name = "app.archive.year")
     int year;
 
+    @ConfigProperty(name = "app.archive.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    @ConfigProperty(name = "app.archive.fetch-size", defaultValue = "1000")
+    int fetchSize;
+
+    @ConfigProperty(name = "app.archive.page-size", defaultValue = "10000")
+    int pageSize;
+
+    @ConfigProperty(name = "app.archive.partitions", defaultValue = "1")
+    int partitions;
+
+    @ConfigProperty(name = "app.archive.commit-interval", defaultValue = "10000")
+    int commitInterval;
+
+    @ConfigProperty(name = "app.archive.typed-rows", defaultValue = "false")
+    boolean typedRows;
+
+    @ConfigProperty(name = "app.archive.pipeline.enabled", defaultValue = "false")
+    boolean pipeline;
+
+    @ConfigProperty(name = "app.archive.pipeline.queue-size", defaultValue = "4")
+    int pipelineQueueSize;
+
+    @ConfigProperty(name = "app.archive.pipeline.transformers", defaultValue = "2")
+    int pipelineTransformers;
+
+    @ConfigProperty(name = "app.archive.virtual-threads", defaultValue = "false")
+    boolean virtualThreads;
+
+    @ConfigProperty(name = "app.archive.progress.every-rows", defaultValue = "100000")
+    long progressEveryRows;
+
+    @ConfigProperty(name = "app.archive.progress.interval", defaultValue = "30s")
+    Duration progressInterval;
+
+    /** The progress of the running archive, set up by {@link #transformAndLoad}. */
+    ProgressReporter progress;
+
+    /** The counters of the statement caches of the partitions, set up by {@link #transformAndLoad}. */
+    StatementCacheStats statementStats;
+
+    @ConfigProperty(name = "app.archive.load-mode", defaultValue = "insert")
+    LoadMode loadMode;
+
+    @ConfigProperty(name = "app.archive.upsert.conflict-columns", defaultValue = "id,year")
+    List<String> conflictColumns;
+
+    @ConfigProperty(name = "app.archive.upsert.action", defaultValue = "update")
+    ConflictAction conflictAction;
+
+    @ConfigProperty(name = "app.archive.file.directory", defaultValue = "archive")
+    Path fileDirectory;
+
+    @ConfigProperty(name = "app.archive.file.max-size", defaultValue = "256M")
+    MemorySize fileMaxSize;
+
+    @ConfigProperty(name = "app.archive.lookup.enabled", defaultValue = "true")
+    boolean lookup;
+
+    @ConfigProperty(name = "app.archive.pushdown.enabled", defaultValue = "false")
+    boolean pushdown;
+
+    @ConfigProperty(name = "app.archive.pushdown.source-schema", defaultValue = "public")
+    String pushdownSourceSchema;
+
+    @ConfigProperty(name = "app.archive.checkpoint.enabled", defaultValue = "false")
+    boolean checkpoint;
+
+    @ConfigProperty(name = "app.archive.checkpoint.resume", defaultValue = "false")
+    boolean resume;
+
+    @ConfigProperty(name = "app.archive.delta.watermark", defaultValue = "none")
+    Watermark watermark;
+
+    /**
+     * Returns the values of the target columns that are the same for every row of the route, e.g. the archiving year,
+     * by placeholder name of the target template. It is called once when a run starts, so time based values are
+     * fixed for the whole run. The route has no constant columns by default.
+     */
+    Map<String, Object> getConstantColumns() {
+        return Map.of();
+    }
+
+    /**
+     * Fixes the values of the {@linkplain #getConstantColumns() constant columns} for the run of the exchange.
+     */
+    void fixConstantColumns(Exchange exchange) {
+        exchange.setProperty(ConstantColumns.PROPERTY, Map.copyOf(getConstantColumns()));
+    }
+
+    /**
+     * Returns the columns of the rows of the route resolved from the dimension tables by the transformation,
+     * when {@linkplain #isLookupEnabled() enabled}. The route has no lookups by default.
+     */
+    List<Lookup> getLookups() {
+        return List.of();
+    }
+
+    /**
+     * Returns whether the source query of the route reads the fact table alone, with the {@linkplain #getLookups() lookups}
+     * resolved by the transformation: {@code app.archive.lookup.enabled} is set and the rows are not copied on the
+     * database server, where the dimension tables are joined.
+     */
+    boolean isLookupEnabled() {
+        return lookup && !isPushdownEnabled();
+    }
+
+    /**
+     * Returns whether the partitions are copied on the database server: {@code app.archive.pushdown.enabled} is set
+     * and the rows are loaded into the target database, not archived into files.
+     */
+    boolean isPushdownEnabled() {
+        return pushdown && loadMode != LoadMode.FILE;
+    }
+
+    /**
+     * Creates a processor that opens the {@link CsvFileSink} of the run in {@code file} load mode, archiving the rows
+     * of the table of the given target template into {@code app.archive.file.directory}. The files are completed when
+     * the run is done, also when it fails. In the other load modes the processor does nothing.
+     *
+     * <p>The files are not read back by the checkpoints and the watermarks, which are kept in the target database,
+     * so the {@code file} load mode cannot be combined with {@code app.archive.checkpoint.enabled},
+     * {@code app.archive.checkpoint.resume} or {@code app.archive.delta.watermark}.</p>
+     *
+     * @throws IllegalArgumentException if the {@code file} load mode is combined with checkpoints or a watermark.
+     */
+    Processor getFileSinkOpener(String targetTemplateFileName) throws IOException, URISyntaxException {
+        if (loadMode == LoadMode.FILE && (checkpoint || resume || watermark != Watermark.NONE)) {
+            throw new IllegalArgumentException("The file load mode cannot be combined with app.archive.checkpoint.enabled, "
+                + "app.archive.checkpoint.resume or app.archive.delta.watermark");
+        }
+        var target = InsertStatement.parse(sqlTemplates.getTemplate(year, targetTemplateFileName));
+        return exchange -> {
+            if (loadMode != LoadMode.FILE) {
+                return;
+            }
+            var sink = new CsvFileSink(fileDirectory, target.table(), year, target.columns(), fileMaxSize.asLongValue());
+            exchange.setProperty(CsvFileSink.PROPERTY, sink);
+            exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    try {
+                        sink.close();
+                    } catch (IOException e) {
+                        log.error("-> Failed to complete the archive files", e);
+                    }
+                }
+            });
+        };
+    }
+
+    /**
+     * Loads the dimension tables of the {@linkplain #getLookups() lookups} of the route from the source database
+     * into the {@value Lookups#PROPERTY} property of the exchange, once for the run, if {@linkplain #isLookupEnabled() enabled}.
+     */
+    void loadLookups(Exchange exchange) throws SQLException, IOException, URISyntaxException {
+        var lookups = getLookups();
+        if (!isLookupEnabled() || lookups.isEmpty()) {
+            return;
+        }
+        var tables = new ArrayList<LookupTable>();
+        try (var connection = sourceDataSource.getConnection()) {
+            for (var lookup : lookups) {
+                var table = LookupTable.load(connection, getSqlTemplate(lookup.templateFileName()));
+                log.info("-> Loaded {} rows of {} to look up {}", table.size(), lookup.templateFileName(), lookup.valueColumn());
+                tables.add(table);
+            }
+        }
+        exchange.setProperty(Lookups.PROPERTY, new Lookups(lookups, tables));
+    }
+
     String getSqlTemplate(String templateFileName) throws IOException, URISyntaxException {
         return sqlTemplates.getSqlTemplate(year, templateFileName);
     }
 
-    Map<String, Expression> getJdbcParameters(String templateFileName) throws IOException, URISyntaxException {
-        return sqlTemplates.getJdbcParameterExpressions(year, templateFileName, this);
+    /**
+     * Returns the number of partitions extracted and loaded concurrently.
+     *
+     * <p>Every running partition holds a connection of both the source and the target pool,
+     * therefore {@code app.archive.partitions} is capped by the maximum size of the smaller pool.</p>
+     */
+    int getPartitions() {
+        int poolSize = Math.min(
+            sourceDataSource.getConfiguration().connectionPoolConfiguration().maxSize(),
+            targetDataSource.getConfiguration().connectionPoolConfiguration().maxSize());
+        if (partitions > poolSize) {
+            log.warn("-> Number of partitions {} exceeds the datasource pool size, using {} partitions", partitions, poolSize);
+            return poolSize;
+        }
+        return Math.max(1, partitions);
+    }
+
+    /**
+     * Creates the bounded thread pool that runs the partitions of the route.
+     */
+    ExecutorService getPartitionExecutor(String routeId, int partitions) throws Exception {
+        return newExecutor(routeId + "-partition", partitions);
+    }
+
+    /**
+     * Creates an executor running at most {@code size} tasks at a time, which is shut down when the Camel context stops.
+     *
+     * <p>By default, it is a fixed thread pool managed by the Camel context. With {@code app.archive.virtual-threads}
+     * every task runs on a new virtual thread instead, and the concurrency is limited by a semaphore of {@code size}
+     * permits; the sizes passed by the routes never exceed the datasource pool sizes.</p>
+     */
+    ExecutorService newExecutor(String name, int size) throws Exception {
+        if (!virtualThreads) {
+            return getContext().getExecutorServiceManager().newFixedThreadPool(this, name, size);
+        }
+        var executor = new BoundedVirtualThreadExecutor(name, size);
+        getContext().addService(new ServiceSupport() {
+            @Override
+            protected void doStop() {
+                executor.shutdownNow();
+            }
+        });
+        return executor;
+    }
+
+    /**
+     * Creates a processor that reads the watermark of an incremental run, if {@code app.archive.delta.watermark} is set,
+     * from the target table of the given template.
+     *
+     * <p>The largest archived id of the year is set as the {@value #ARCHIVED_ID} header, which moves the start of
+     * the partitions; the creation time and the id of the latest archived row are set as the {@value #CREATED_AFTER}
+     * and {@value #CREATED_AFTER_ID} headers, which filter the rows of the range and the source queries to those
+     * created later, or at the same time with a greater id. The {@value #CREATED_AFTER} and {@value #CREATED_AFTER_ID}
+     * headers are always set, so that the placeholders can be bound.</p>
+     */
+    Processor getWatermarkReader(String targetTemplateFileName) throws IOException, URISyntaxException {
+        var table = InsertStatement.parse(sqlTemplates.getTemplate(year, targetTemplateFileName)).table();
+        return exchange -> {
+            exchange.getIn().setHeader(CREATED_AFTER, null);
+            exchange.getIn().setHeader(CREATED_AFTER_ID, null);
+            if (watermark == Watermark.NONE) {
+                return;
+            }
+            var values = checkpointStore.readWatermark(table, watermark.getColumns(), year);
+            log.info("-> Archiving the rows of year {} after the {} watermark {}", year, watermark.getColumns(), values);
+            switch (watermark) {
+                case ID -> exchange.getIn().setHeader(ARCHIVED_ID, values.getFirst());
+                case CREATION_TIME -> {
+                    exchange.getIn().setHeader(CREATED_AFTER, values.get(0));
+                    exchange.getIn().setHeader(CREATED_AFTER_ID, values.get(1));
+                }
+            }
+        };
+    }
+
+    /**
+     * Replaces the {@code min_id} and {@code max_id} of the source table in the message body
+     * by the list of {@link IdRange}s to be extracted by the partitions.
+     * The ranges start after the {@value #ARCHIVED_ID} header of an incremental run, if set.
+     *
+     * <p>When {@code app.archive.checkpoint.resume} is set and the route has already been run for the year,
+     * the unfinished ranges of that run are returned instead, each starting after its last loaded id.
+     * Otherwise, when checkpoints are enabled or resuming was requested, the new ranges are recorded as
+     * the checkpoints of the run.</p>
+     */
+    @SuppressWarnings("unchecked")
+    void toPartitions(Exchange exchange, int partitions) throws SQLException {
+        var routeId = getRouteId(exchange);
+        if (resume) {
+            var remaining = checkpointStore.resume(routeId, year);
+            if (remaining.isPresent()) {
+                log.info("-> Resuming {} partitions of year {} from the checkpoints", remaining.get().size(), year);
+                exchange.getIn().setBody(remaining.get());
+                startProgress(remaining.get());
+                return;
+            }
+            log.info("-> No checkpoints found for year {}, starting a new run", year);
+        }
+        Map<String, Object> bounds = exchange.getIn().getBody(Map.class);
+        List<IdRange> ranges = List.of();
+        if (bounds != null && bounds.get("min_id") != null) {
+            long minId = ((Number) bounds.get("min_id")).longValue();
+            var archivedId = exchange.getIn().getHeader(ARCHIVED_ID, Number.class);
+            if (archivedId != null) {
+                // An incremental run only extracts the ids after the already archived ones.
+                minId = Math.max(minId, archivedId.longValue() + 1);
+            }
+            ranges = IdRange.split(minId, ((Number) bounds.get("max_id")).longValue(), partitions);
+        }
+        if (checkpoint || resume) {
+            checkpointStore.start(routeId, year, ranges);
+        }
+        exchange.getIn().setBody(ranges);
+        startProgress(ranges);
+    }
+
+    private void startProgress(List<IdRange> ranges) {
+        if (progress != null) {
+            progress.start(ranges.stream().mapToLong(range -> range.upTo() - range.after()).sum());
+        }
+    }
+
+    /**
+     * Logs the summary of the archive run, and the use of the statement caches of the partitions,
+     * and completes the archive files of the run in {@code file} load mode.
+     */
+    void finishProgress(Exchange exchange) throws IOException {
+        if (progress != null) {
+            progress.finish();
+        }
+        var sink = exchange.getProperty(CsvFileSink.PROPERTY, CsvFileSink.class);
+        if (sink != null) {
+            sink.close();
+        }
+        if (statementStats != null && statementStats.getMisses() > 0) {
+            log.info("-> Prepared {} target statements, reused {} times", statementStats.getMisses(), statementStats.getHits());
+        }
+    }
+
+    /**
+     * Returns the hook recording the last loaded id of the partition in the load transaction,
+     * if {@code app.archive.checkpoint.enabled} or {@code app.archive.checkpoint.resume} is set.
+     *
+     * <p>The partition is identified by the end of the id range of the keyset cursor of the exchange, or of the id range
+     * in the message body, when the whole partition is copied by one statement.</p>
+     */
+    TransactionHook getCheckpointHook() {
+        if (!checkpoint && !resume) {
+            return TransactionHook.NONE;
+        }
+        return (connection, exchange, lastId) -> {
+            var cursor = exchange.getProperty(KEYSET_CURSOR, KeysetCursor.class);
+            long rangeEnd = cursor != null ? cursor.getUpperId() : exchange.getIn().getBody(IdRange.class).upTo();
+            checkpointStore.save(connection, getRouteId(exchange), year, rangeEnd, lastId);
+        };
+    }
+
+    /**
+     * Positions a new keyset cursor at the beginning of the id range in the message body.
+     */
+    void openCursor(Exchange exchange) {
+        exchange.setProperty(KEYSET_CURSOR, new KeysetCursor("id", pageSize, exchange.getIn().getBody(IdRange.class)));
+    }
+
+    /**
+     * Starts the {@link ChunkedTransaction} of the partition, which loads the chunks of the partition on a single
+     * target connection, committing every {@code app.archive.commit-interval} rows.
+     * The connection is released when the partition completes; if it fails, the uncommitted rows are rolled back.
+     */
+    void beginTransaction(Exchange exchange) {
+        var transaction = new ChunkedTransaction(targetDataSource, commitInterval, getCheckpointHook(), "id", statementStats);
+        exchange.setProperty(ChunkedTransaction.PROPERTY, transaction);
+        exchange.setProperty(LOADED_ID, new AtomicLong(exchange.getIn().getBody(IdRange.class).after()));
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange exchange) {
+                transaction.close();
+            }
+        });
+    }
+
+    /**
+     * Commits the rows of the partition loaded since the last commit when the partition has been extracted,
+     * and records the partition as complete in its checkpoint, if checkpoints are enabled. The last loaded id of
+     * a partition does not reach the end of its range when no row has the last id of the range, so the checkpoint
+     * is saved with the end of the range, in the same transaction, on the connection the partition already holds.
+     */
+    void commitTransaction(Exchange exchange) throws SQLException {
+        var rangeEnd = exchange.getProperty(KEYSET_CURSOR, KeysetCursor.class).getUpperId();
+        exchange.getProperty(ChunkedTransaction.PROPERTY, ChunkedTransaction.class).commitRange(exchange, rangeEnd);
+    }
+
+    /**
+     * Returns whether the keyset cursor of the exchange has more pages to extract.
+     */
+    boolean hasMorePages(Exchange exchange) {
+        return exchange.getProperty(KEYSET_CURSOR, KeysetCursor.class).hasMorePages();
+    }
+
+    /**
+     * Starts the next page of the keyset cursor, and sets the {@code lastId}, {@code upperId} and {@code pageSize} headers
+     * bound to the named placeholders of the source query template.
+     */
+    void nextPage(Exchange exchange) {
+        var cursor = exchange.getProperty(KEYSET_CURSOR, KeysetCursor.class);
+        exchange.getIn().setHeader("lastId", cursor.nextPage());
+        exchange.getIn().setHeader("upperId", cursor.getUpperId());
+        exchange.getIn().setHeader("pageSize", cursor.getPageSize());
+    }
+
+    /**
+     * Appends the extraction of the source query template to the route.
+     *
+     * <p>In streaming mode the query is executed on a forward-only cursor fetching {@code app.archive.fetch-size} rows
+     * at a time, and the message body becomes an iterator over the rows. Otherwise, the {@code jdbc} component
+     * executes the SQL command in the message body and returns the whole result as a list.
+     * In both cases the named placeholders of the query are bound from the message headers, and the query is timed
+     * by the {@code extract} stage timer.</p>
+     *
+     * <p>With {@code app.archive.typed-rows} the streamed rows are typed {@link Row}s instead of hash maps, with a slot
+     * for every placeholder of the target template that is not a constant column, so the values added by
+     * the transformation need no allocation, and the loader reads the values by index.</p>
+     *
+     * @param route                  the route, whose message body is the source query.
+     * @param routeId                the id of the route.
+     * @param templateFileName       the source query template.
+     * @param targetTemplateFileName the target template the rows are loaded with.
+     * @param streaming              whether the rows are streamed from a database cursor.
+     */
+    <T extends ProcessorDefinition<T>> T extract(T route, String routeId, String templateFileName, String targetTemplateFileName, boolean streaming)
+            throws IOException, URISyntaxException {
+        route.process(metrics.startExtract());
+        if (streaming) {
+            route.process(new JdbcStreamReader(
+                sourceDataSource, sqlTemplates.getParameterBinder(year, templateFileName), fetchSize,
+                typedRows ? getRowColumns(targetTemplateFileName) : null));
+        } else {
+            // useHeadersAsParameters: Set this option to true to use the prepareStatementStrategy with named parameters.
+            route.to("jdbc:source?useHeadersAsParameters=true");
+        }
+        return route.process(metrics.stopExtract(routeId));
+    }
+
+    /**
+     * Returns the placeholders of the given target template that are read from the rows.
+     */
+    private List<String> getRowColumns(String targetTemplateFileName) throws IOException, URISyntaxException {
+        var constants = getConstantColumns().keySet();
+        return sqlTemplates.getJdbcParameterNames(year, targetTemplateFileName).stream()
+            .filter(name -> !constants.contains(name))
+            .toList();
+    }
+
+    /**
+     * Creates a processor that loads a chunk of rows into the target database according to {@code app.archive.load-mode}.
+     *
+     * <p>In {@code insert} mode the row values are bound to the named placeholders of the given template, and the chunk
+     * is sent in a single JDBC batch. In {@code copy} mode the table and columns of the {@code INSERT} template are
+     * loaded with PostgreSQL {@code COPY}, taking the value of each column from the placeholder at the same position.
+     * In {@code upsert} mode the template is extended with the {@code ON CONFLICT} clause of {@code app.archive.upsert.*}
+     * and sent in JDBC batches, so the rows already in the target table are updated or skipped.
+     * In {@code file} mode the columns of the {@code INSERT} template are written into the gzip compressed CSV files
+     * of the {@link CsvFileSink} of the run instead of the target database.
+     * In all modes the values of the {@linkplain #getConstantColumns() constant columns} are taken from the run
+     * instead of the rows. The chunks are written in the {@link ChunkedTransaction} of the partition.</p>
+     */
+    Processor getLoader(String templateFileName) throws IOException, URISyntaxException {
+        var constants = getConstantColumns().keySet();
+        var template = sqlTemplates.getTemplate(year, templateFileName);
+        return switch (loadMode) {
+            case INSERT -> new JdbcBatchLoader(template.binder().withConstants(constants));
+            case COPY -> new PgCopyLoader(InsertStatement.parse(template), constants);
+            case UPSERT -> new JdbcBatchLoader(
+                InsertStatement.toUpsert(template, conflictColumns, conflictAction).binder().withConstants(constants));
+            case FILE -> new CsvFileLoader(InsertStatement.parse(template), constants);
+        };
+    }
+
+    /**
+     * Appends the transformation and the load of the chunks in the message body to the route.
+     *
+     * <p>By default, every chunk is transformed and loaded in turn by a streaming split, on the thread that reads
+     * the source. With {@code app.archive.pipeline.enabled} the chunks flow through a {@link ChunkPipeline} instead:
+     * the source is read while {@code app.archive.pipeline.transformers} threads transform and a writer loads
+     * the previous chunks, with at most {@code app.archive.pipeline.queue-size} chunks in between.</p>
+     *
+     * <p>The {@linkplain #getLookups() lookups} of the run are resolved in every chunk before it is transformed,
+     * leaving out the rows whose university or department is not found, as the joining source query does.</p>
+     *
+     * <p>The loaded chunks are counted by the {@link ProgressReporter} of the route, which logs the progress every
+     * {@code app.archive.progress.every-rows} rows or {@code app.archive.progress.interval}; the chunks themselves
+     * are only logged at {@code DEBUG} level. Both stages are measured by {@link ArchiveMetrics}.</p>
+     *
+     * @param route                  the route, whose message body is an iterator of chunks.
+     * @param routeId                the id of the route, naming the threads of the pipeline.
+     * @param partitions             the number of partitions running concurrently, each needing a writer thread.
+     * @param transformer            the transformation of a chunk.
+     * @param targetTemplateFileName the target template of the loader.
+     * @param rowsName               the name of the rows in the progress log.
+     */
+    @SuppressWarnings("unchecked")
+    ProcessorDefinition<?> transformAndLoad(ProcessorDefinition<?> route, String routeId, int partitions, Processor transformer,
+                                            String targetTemplateFileName, String rowsName) throws Exception {
+        progress = new ProgressReporter(log, rowsName, progressEveryRows, progressInterval);
+        statementStats = metrics.statementCache(routeId);
+        var rowTransformer = transformer;
+        transformer = metrics.transform(routeId, exchange -> {
+            exchange.getIn().setBody(Lookups.get(exchange).enrich(exchange.getIn().getBody(List.class)));
+            rowTransformer.process(exchange);
+        });
+        var loader = metrics.load(routeId, getLoader(targetTemplateFileName));
+        Processor reportingLoader = exchange -> {
+            loader.process(exchange);
+            reportProgress(exchange);
+        };
+        if (pipeline) {
+            return route.process(new ChunkPipeline(
+                transformer,
+                exchange -> {
+                    log.debug("-> Loading {} {} in target database", exchange.getIn().getBody(List.class).size(), rowsName);
+                    reportingLoader.process(exchange);
+                },
+                newExecutor(routeId + "-transformer", pipelineTransformers),
+                newExecutor(routeId + "-writer", partitions),
+                pipelineQueueSize));
+        }
+        return route.split(body()).streaming().stopOnException()
+                .process(transformer)
+                .log(LoggingLevel.DEBUG, "-> Loading ${body.size()} " + rowsName + " in target database")
+                // Sends the chunk in a single JDBC batch, or a single COPY, depending on the load mode.
+                .process(reportingLoader)
+            .end();
+    }
+
+    /**
+     * Reports the chunk just loaded to the progress of the run, with the ids covered since the previous chunk
+     * of the partition.
+     */
+    @SuppressWarnings("unchecked")
+    private void reportProgress(Exchange exchange) {
+        List<Map<String, Object>> rows = exchange.getIn().getBody(List.class);
+        if (rows.isEmpty()) {
+            return;
+        }
+        long lastId = ((Number) rows.getLast().get("id")).longValue();
+        long previousId = exchange.getProperty(LOADED_ID, AtomicLong.class).getAndSet(lastId);
+        progress.advance(rows.size(), lastId - previousId);
+    }
+
+    /**
+     * Creates a processor that copies the id range in the message body from the source tables into the target table
+     * with a single {@code INSERT ... SELECT} executed on the target database, reading the source tables
+     * under {@code app.archive.pushdown.source-schema}. The {@linkplain #getConstantColumns() constant columns}
+     * are bound as parameters of the statement. In {@code upsert} load mode the statement gets the {@code ON CONFLICT}
+     * clause of {@code app.archive.upsert.*}.
+     *
+     * <p>The copied partitions are counted by the {@link ProgressReporter} of the route, as the chunks of
+     * the other load modes.</p>
+     *
+     * @param sourceTemplateFileName the source query template.
+     * @param targetTemplateFileName the target {@code INSERT} template.
+     * @param rowsName               the name of the rows in the progress log.
+     */
+    Processor getInsertSelectLoader(String sourceTemplateFileName, String targetTemplateFileName, String rowsName)
+            throws IOException, URISyntaxException {
+        progress = new ProgressReporter(log, rowsName, progressEveryRows, progressInterval);
+        var target = InsertStatement.parse(sqlTemplates.getTemplate(year, targetTemplateFileName));
+        var loader = new InsertSelectLoader(targetDataSource, pushdownSourceSchema,
+            sqlTemplates.getTemplate(year, sourceTemplateFileName), target, getConstantColumns().keySet(),
+            loadMode == LoadMode.UPSERT ? target.onConflict(conflictColumns, conflictAction) : "",
+            getCheckpointHook());
+        return exchange -> {
+            loader.process(exchange);
+            var range = exchange.getIn().getBody(IdRange.class);
+            progress.advance(exchange.getIn().getHeader(InsertSelectLoader.INSERTED_ROWS, Integer.class), range.upTo() - range.after());
+        };
+    }
+
+    /**
+     * Replaces the extracted rows in the message body by an iterator of chunks of {@code app.archive.batch-size} rows.
+     * The rows advance the keyset cursor of the exchange as they are consumed.
+     */
+    @SuppressWarnings("unchecked")
+    void toBatches(Exchange exchange) {
+        Iterator<Map<String, Object>> rows = exchange.getIn().getBody(Iterator.class);
+        var cursor = exchange.getProperty(KEYSET_CURSOR, KeysetCursor.class);
+        exchange.getIn().setBody(new RowBatches<>(cursor.track(rows), batchSize));
+    }
+
+    /**
+     * Returns the id of the archive route running the exchange, set in the {@value #ROUTE_ID} property when the run
+     * starts, or the id of the route the exchange was created by.
+     */
+    static String getRouteId(Exchange exchange) {
+        return exchange.getProperty(ROUTE_ID, exchange.getFromRouteId(), String.class);
+    }
+
+    /**
+     * Returns the endpoint the route of the given command is started by: a timer firing once when the command is
+     * {@code app.archive.command}, or a {@code direct} endpoint called by the {@link ArchiveOrchestrator} when the
+     * command is one of the {@code app.archive.all.stages} of an {@value #ARCHIVE_ALL} run.
+     */
+    String getTrigger(String routeCommand) {
+        if (isOrchestrated(routeCommand)) {
+            return "direct:" + routeCommand;
+        }
+        // delay: The number of milliseconds to wait before the first event is generated. delay=-1 means the route is triggered immediately
+        // repeatCount: The number of times the event is generated. repeatCount=1 means the route is triggered only once
+        return "timer://" + routeCommand + "?delay=-1&repeatCount=1";
+    }
+
+    /**
+     * Returns the stages of an {@value #ARCHIVE_ALL} run from {@code app.archive.all.stages}: the stages are separated
+     * by semicolons and run one after the other, the commands of a stage are separated by commas and run concurrently.
+     */
+    List<List<String>> getStages() {
+        return Arrays.stream(stages.split(";"))
+            .map(stage -> Arrays.stream(stage.split(",")).map(String::trim).filter(c -> !c.isEmpty()).toList())
+            .filter(stage -> !stage.isEmpty())
+            .toList();
     }
 
     boolean isTriggered(String routeCommand) {
-        return routeCommand.equalsIgnoreCase(command);
+        return routeCommand.equalsIgnoreCase(command) || isOrchestrated(routeCommand);
+    }
+
+    private boolean isOrchestrated(String routeCommand) {
+        return ARCHIVE_ALL.equalsIgnoreCase(command)
+            && getStages().stream().flatMap(List::stream).anyMatch(routeCommand::equalsIgnoreCase);
     }
 }
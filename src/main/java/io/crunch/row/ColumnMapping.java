@@ -0,0 +1,73 @@
+package io.crunch.row;
+
+import java.util.Map;
+
+/**
+ * Reads the values of a fixed list of columns, e.g. the placeholders of a target template, from the rows.
+ *
+ * <p>The values of a {@link Row} are read by index; the indexes of the columns are resolved once per {@link RowSchema}.
+ * Since all the rows of a query share the same schema, this is a single identity check per row. The values of
+ * any other map are looked up by name.</p>
+ */
+public final class ColumnMapping {
+
+    private final String[] columns;
+
+    /** The indexes of the columns in the schema of the last row read. */
+    private volatile Resolved resolved;
+
+    /**
+     * Constructs a new {@link ColumnMapping}.
+     *
+     * @param columns the names of the columns to be read, in order.
+     */
+    public ColumnMapping(String[] columns) {
+        this.columns = columns.clone();
+    }
+
+    /**
+     * Returns the number of columns.
+     */
+    public int size() {
+        return columns.length;
+    }
+
+    /**
+     * Copies the values of the columns from the given row into the given array, in order.
+     * Missing columns are copied as {@code null}.
+     *
+     * @param row    the row, a {@link Row} or any other map of column names to values.
+     * @param values the array of at least {@link #size()} elements receiving the values.
+     */
+    public void copyValues(Map<String, ?> row, Object[] values) {
+        if (row instanceof Row typed) {
+            var indexes = indexesIn(typed.getSchema());
+            for (int i = 0; i < indexes.length; i++) {
+                values[i] = typed.getValue(indexes[i]);
+            }
+        } else {
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = row.get(columns[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of every column of this mapping in the given schema, {@code -1} for the missing columns.
+     */
+    public int[] indexesIn(RowSchema schema) {
+        var current = resolved;
+        if (current == null || current.schema() != schema) {
+            var indexes = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                indexes[i] = schema.indexOf(columns[i]);
+            }
+            current = new Resolved(schema, indexes);
+            resolved = current;
+        }
+        return current.indexes();
+    }
+
+    private record Resolved(RowSchema schema, int[] indexes) {
+    }
+}
@@ -0,0 +1,117 @@
+package io.crunch.row;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A row of a query result, stored as an array of values indexed by the columns of a shared {@link RowSchema}.
+ *
+ * <p>The row is a fixed size {@link Map} of column names to values, so it can be used wherever the rows are handled as maps,
+ * e.g. by the transformation of the routes or by Simple expressions. Compared to a {@link java.util.LinkedHashMap} per row,
+ * it needs no hash table and no entry objects, and the column names are only stored once per schema.
+ * The loaders read the values by index through a {@link ColumnMapping} without any lookup by name.</p>
+ *
+ * <p>Only the values of the columns of the schema can be set; putting any other key throws an {@link IllegalArgumentException},
+ * and columns cannot be removed.</p>
+ */
+public final class Row extends AbstractMap<String, Object> {
+
+    private final RowSchema schema;
+
+    private final Object[] values;
+
+    Row(RowSchema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    /**
+     * Returns the schema of the row.
+     */
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the value of the column at the given index of the schema, or {@code null} if the index is negative,
+     * as returned by {@link RowSchema#indexOf(String)} for a missing column.
+     */
+    public Object getValue(int index) {
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * Sets the value of the column at the given index of the schema.
+     */
+    public void setValue(int index, Object value) {
+        values[index] = value;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = key instanceof String column ? schema.indexOf(column) : -1;
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String column && schema.indexOf(column) >= 0;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int index = schema.indexOf(key);
+        if (index < 0) {
+            throw new IllegalArgumentException("The row has no column " + key);
+        }
+        var previous = values[index];
+        values[index] = value;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int current = index++;
+                        return new SimpleEntry<>(schema.getColumn(current), values[current]) {
+                            @Override
+                            public Object setValue(Object value) {
+                                values[current] = value;
+                                return super.setValue(value);
+                            }
+                        };
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+}
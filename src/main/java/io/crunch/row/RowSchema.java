@@ -0,0 +1,118 @@
+package io.crunch.row;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The column names of a {@link Row}, shared by all the rows read by the same query.
+ *
+ * <p>The schema starts with the columns of the result set, followed by the columns added to the rows afterward,
+ * e.g. by the transformation of a route; the values of the added columns are {@code null} until they are set.
+ * The index of every column is resolved once, when the schema is created.</p>
+ */
+public final class RowSchema {
+
+    private final String[] columns;
+
+    private final Map<String, Integer> indexes;
+
+    private final int resultColumns;
+
+    private RowSchema(List<String> columns, int resultColumns) {
+        this.columns = columns.toArray(String[]::new);
+        this.indexes = new HashMap<>(this.columns.length * 2);
+        for (int i = 0; i < this.columns.length; i++) {
+            indexes.put(this.columns[i], i);
+        }
+        this.resultColumns = resultColumns;
+    }
+
+    /**
+     * Creates the schema of the rows of a result set.
+     *
+     * @param metaData     the metadata of the result set, the rows have a column for every column label.
+     * @param addedColumns the columns added to the rows after they have been read; columns of the result set are ignored.
+     * @return the new schema.
+     * @throws SQLException if the metadata cannot be read.
+     */
+    public static RowSchema of(ResultSetMetaData metaData, Collection<String> addedColumns) throws SQLException {
+        var labels = new ArrayList<String>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            labels.add(metaData.getColumnLabel(i));
+        }
+        return of(labels, addedColumns);
+    }
+
+    /**
+     * Creates the schema of rows with the given result columns and added columns.
+     */
+    public static RowSchema of(List<String> resultColumns, Collection<String> addedColumns) {
+        var columns = new ArrayList<String>(resultColumns.size() + addedColumns.size());
+        columns.addAll(resultColumns);
+        for (var column : addedColumns) {
+            if (!columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+        return new RowSchema(columns, resultColumns.size());
+    }
+
+    /**
+     * Returns whether the rows of the result set with the given metadata fit this schema,
+     * so the schema can be shared with the rows of another page of the same query.
+     *
+     * @throws SQLException if the metadata cannot be read.
+     */
+    public boolean matches(ResultSetMetaData metaData) throws SQLException {
+        if (metaData.getColumnCount() != resultColumns) {
+            return false;
+        }
+        for (int i = 0; i < resultColumns; i++) {
+            if (!columns[i].equals(metaData.getColumnLabel(i + 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of columns read from the result set, which come first in the schema.
+     */
+    public int getResultColumns() {
+        return resultColumns;
+    }
+
+    /**
+     * Returns the number of columns.
+     */
+    public int size() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the name of the column at the given index.
+     */
+    public String getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Returns the index of the given column, or {@code -1} if the schema has no such column.
+     */
+    public int indexOf(String column) {
+        var index = indexes.get(column);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Creates an empty row of this schema.
+     */
+    public Row newRow() {
+        return new Row(this, new Object[columns.length]);
+    }
+}
@@ -0,0 +1,13 @@
+package io.crunch.template;
+
+/**
+ * The action of an upsert when the target table already contains a row with the same conflict columns.
+ */
+public enum ConflictAction {
+
+    /** The existing row is updated with the values of the new row. */
+    UPDATE,
+
+    /** The new row is skipped, the existing row is kept. */
+    NOTHING
+}
@@ -0,0 +1,99 @@
+package io.crunch.template;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The structure of an {@code INSERT INTO table (columns) VALUES (placeholders)} template,
+ * where every value is a single named placeholder.
+ *
+ * @param table        the name of the target table.
+ * @param columns      the target column names in declaration order.
+ * @param placeholders the placeholder names (without {@code :?}) providing the value of the column at the same position.
+ */
+public record InsertStatement(String table, List<String> columns, List<String> placeholders) {
+
+    private static final Pattern insert = Pattern.compile(
+        "^\\s*INSERT\\s+INTO\\s+(\\S+)\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(([^)]*)\\)\\s*;?\\s*$",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern placeholder = Pattern.compile(":\\?(\\w+)");
+
+    /**
+     * Parses the given compiled template.
+     *
+     * @param template the compiled {@code INSERT} template.
+     * @return the table, columns and placeholders of the template.
+     * @throws IllegalArgumentException if the template is not a plain {@code INSERT ... VALUES} statement
+     *                                  with one placeholder per column.
+     */
+    public static InsertStatement parse(SqlTemplate template) {
+        var matcher = insert.matcher(template.sql());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not an INSERT INTO ... VALUES template: " + template.sql());
+        }
+        var columns = split(matcher.group(2));
+        var values = split(matcher.group(3));
+        if (columns.size() != values.size()) {
+            throw new IllegalArgumentException("The number of columns and values differ: " + template.sql());
+        }
+        var placeholders = values.stream().map(value -> {
+            var valueMatcher = placeholder.matcher(value);
+            if (!valueMatcher.matches()) {
+                throw new IllegalArgumentException("Value " + value + " is not a single named placeholder: " + template.sql());
+            }
+            return valueMatcher.group(1);
+        }).toList();
+        return new InsertStatement(matcher.group(1), columns, placeholders);
+    }
+
+    /**
+     * Returns the {@code ON CONFLICT} clause that turns this statement into an upsert.
+     *
+     * <p>With {@link ConflictAction#UPDATE} every column other than the conflict columns is set to the new value,
+     * with {@link ConflictAction#NOTHING} the new row is skipped. The target table needs a unique index or constraint
+     * on exactly the conflict columns.</p>
+     *
+     * @param conflictColumns the columns identifying a row of the target table, e.g. {@code id, year}.
+     * @param action          the action taken when the row already exists.
+     * @return the clause, starting with a space, to be appended to the statement.
+     * @throws IllegalArgumentException if a conflict column is not a column of the statement.
+     */
+    public String onConflict(List<String> conflictColumns, ConflictAction action) {
+        for (var conflictColumn : conflictColumns) {
+            if (columns.stream().noneMatch(conflictColumn::equalsIgnoreCase)) {
+                throw new IllegalArgumentException("Conflict column " + conflictColumn + " is not a column of table " + table);
+            }
+        }
+        var clause = " ON CONFLICT (" + String.join(", ", conflictColumns) + ") DO ";
+        if (action == ConflictAction.NOTHING) {
+            return clause + "NOTHING";
+        }
+        return clause + "UPDATE SET " + columns.stream()
+            .filter(column -> conflictColumns.stream().noneMatch(column::equalsIgnoreCase))
+            .map(column -> column + " = EXCLUDED." + column)
+            .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Returns the given {@code INSERT} template as an upsert with the {@linkplain #onConflict(List, ConflictAction) ON CONFLICT}
+     * clause of its statement, keeping the placeholders of the template.
+     *
+     * @param template        the compiled {@code INSERT} template.
+     * @param conflictColumns the columns identifying a row of the target table.
+     * @param action          the action taken when the row already exists.
+     * @return the compiled upsert template.
+     * @throws IllegalArgumentException if the template is not a plain {@code INSERT ... VALUES} statement,
+     *                                  or a conflict column is not a column of the statement.
+     */
+    public static SqlTemplate toUpsert(SqlTemplate template, List<String> conflictColumns, ConflictAction action) {
+        var clause = parse(template).onConflict(conflictColumns, action);
+        return SqlTemplate.compile(template.sql().strip().replaceFirst(";$", "") + clause);
+    }
+
+    private static List<String> split(String list) {
+        return Arrays.stream(list.split(",")).map(String::trim).toList();
+    }
+}
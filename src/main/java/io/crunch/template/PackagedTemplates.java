@@ -0,0 +1,88 @@
+package io.crunch.template;
+
+import io.quarkus.runtime.ImageMode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The SQL templates packaged with the application in the {@value #FOLDER} folder, compiled when the native image is built.
+ *
+ * <p>The class is initialized while the native image is built, so the packaged templates are read, compiled and
+ * validated by the build, and stored in the image heap: a template that cannot be compiled, or a target template that
+ * is not a plain {@code INSERT}, fails the build, and the native application reads no template file when it starts.
+ * On the JVM no template is compiled in advance, they are read from the class path on their first use.</p>
+ */
+final class PackagedTemplates {
+
+    /** The folder of the packaged templates on the class path. */
+    static final String FOLDER = "templates";
+
+    /** The templates compiled when the native image was built, by template file name. */
+    private static final Map<String, SqlTemplate> TEMPLATES = ImageMode.current() == ImageMode.NATIVE_BUILD ? load() : Map.of();
+
+    private PackagedTemplates() {
+    }
+
+    /**
+     * Returns the template compiled when the native image was built, or {@code null} if the template was not packaged
+     * in the given folder, or the application is not a native image.
+     *
+     * @param folder       the configured template folder.
+     * @param templateFile the name of the template file.
+     */
+    static SqlTemplate get(String folder, String templateFile) {
+        return FOLDER.equals(folder) ? TEMPLATES.get(templateFile) : null;
+    }
+
+    /**
+     * Reads, compiles and validates every {@code .sql} file of the {@value #FOLDER} folder on the class path.
+     *
+     * @return the compiled templates by template file name.
+     * @throws IllegalArgumentException if a template is not valid.
+     */
+    static Map<String, SqlTemplate> load() {
+        var url = PackagedTemplates.class.getResource('/' + FOLDER);
+        if (url == null) {
+            return Map.of();
+        }
+        var templates = new HashMap<String, SqlTemplate>();
+        try {
+            var uri = url.toURI();
+            try (var fileSystem = "jar".equals(uri.getScheme()) ? FileSystems.newFileSystem(uri, Map.of()) : null;
+                 var files = Files.list(fileSystem != null ? fileSystem.getPath('/' + FOLDER) : Path.of(uri))) {
+                for (var file : files.filter(file -> file.getFileName().toString().endsWith(".sql")).toList()) {
+                    var name = file.getFileName().toString();
+                    var template = SqlTemplates.compile(Files.readString(file, StandardCharsets.UTF_8));
+                    validate(name, template);
+                    templates.put(name, template);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the templates of " + url, e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot read the templates of " + url, e);
+        }
+        return Map.copyOf(templates);
+    }
+
+    /**
+     * Checks that a target template, an {@code INSERT} command, can be bound and rewritten by the loaders.
+     */
+    private static void validate(String name, SqlTemplate template) {
+        if (template.sql().strip().regionMatches(true, 0, "INSERT", 0, "INSERT".length())) {
+            try {
+                InsertStatement.parse(template);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("The template " + name + " is not valid: " + e.getMessage(), e);
+            }
+        }
+    }
+}
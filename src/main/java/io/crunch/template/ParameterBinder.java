@@ -0,0 +1,109 @@
+package io.crunch.template;
+
+import io.crunch.row.ColumnMapping;
+import io.crunch.row.Row;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Binds the named placeholders of a compiled {@link SqlTemplate} to a positional {@link PreparedStatement}.
+ *
+ * <p>The template is parsed once into the positional SQL command and an index to name map, so binding a row
+ * is a plain loop over the placeholders that reads the values straight from the row map, without copying them
+ * into message headers or evaluating any expression. The values of a typed {@link Row} are read by column index.</p>
+ *
+ * <p>Placeholders declared constant with {@link #withConstants(Collection)} are not bound from the rows.
+ * Their values are bound once per statement by {@link #bindConstants(PreparedStatement, Map)}, and stay in effect
+ * for every row added to the batch of the statement, as JDBC keeps parameter values until they are replaced.</p>
+ */
+public final class ParameterBinder {
+
+    private final String sql;
+
+    /** The placeholder name of every positional parameter, the parameter index is the array index plus one. */
+    private final String[] names;
+
+    /** The array indexes of the parameters bound from the rows. */
+    private final int[] rowParameters;
+
+    /** The array indexes of the constant parameters. */
+    private final int[] constantParameters;
+
+    /** The columns of the typed rows bound to the row parameters. */
+    private final ColumnMapping mapping;
+
+    ParameterBinder(String sql, List<String> names) {
+        this(sql, names.toArray(String[]::new), Set.of());
+    }
+
+    private ParameterBinder(String sql, String[] names, Collection<String> constants) {
+        this.sql = sql;
+        this.names = names;
+        this.rowParameters = IntStream.range(0, names.length).filter(i -> !constants.contains(names[i])).toArray();
+        this.constantParameters = IntStream.range(0, names.length).filter(i -> constants.contains(names[i])).toArray();
+        var rowNames = new ArrayList<String>(rowParameters.length);
+        for (int i : rowParameters) {
+            rowNames.add(names[i]);
+        }
+        this.mapping = new ColumnMapping(rowNames.toArray(String[]::new));
+    }
+
+    /**
+     * Returns a binder of the same SQL command, where the placeholders of the given names are constant.
+     *
+     * @param constants the names of the placeholders that have the same value for every row.
+     * @return the new binder.
+     */
+    public ParameterBinder withConstants(Collection<String> constants) {
+        return new ParameterBinder(sql, names, Set.copyOf(constants));
+    }
+
+    /**
+     * Returns the SQL command with positional {@code ?} placeholders the values are bound to.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Sets every constant parameter of the statement to the value of the same name in the given map.
+     * Missing values are bound as SQL {@code NULL}.
+     *
+     * @param statement the statement prepared from {@link #getSql()}.
+     * @param constants the values of the constant placeholders by name.
+     * @throws SQLException if a parameter cannot be set.
+     */
+    public void bindConstants(PreparedStatement statement, Map<String, ?> constants) throws SQLException {
+        for (int i : constantParameters) {
+            statement.setObject(i + 1, constants.get(names[i]));
+        }
+    }
+
+    /**
+     * Sets every parameter of the statement, except the constant ones, to the value of the same name in the given map.
+     * Missing values are bound as SQL {@code NULL}.
+     *
+     * @param statement the statement prepared from {@link #getSql()}.
+     * @param values    the values by placeholder name, e.g. a source row or the message headers.
+     * @throws SQLException if a parameter cannot be set.
+     */
+    public void bind(PreparedStatement statement, Map<String, ?> values) throws SQLException {
+        if (values instanceof Row row) {
+            var indexes = mapping.indexesIn(row.getSchema());
+            for (int i = 0; i < indexes.length; i++) {
+                statement.setObject(rowParameters[i] + 1, row.getValue(indexes[i]));
+            }
+            return;
+        }
+        for (int i : rowParameters) {
+            statement.setObject(i + 1, values.get(names[i]));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.crunch.template;
+
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled SQL template: the content of a template file parsed once, together with everything derived from it.
+ *
+ * @param sql                  the content of the template file joined into a single line.
+ * @param preparedStatementSql the SQL command where every named placeholder is replaced by a positional {@code ?}.
+ * @param parameters           the placeholder names (without {@code :?}) in the order they appear in the template.
+ * @param binder               the binder of the placeholder values to the prepared statement.
+ */
+public record SqlTemplate(String sql, String preparedStatementSql, List<String> parameters, ParameterBinder binder) {
+
+    /**
+     * A regular expression pattern for matching placeholders in templates.
+     * Placeholders are expected to follow the format {@code :?placeholder}.
+     */
+    private static final Pattern pattern = Pattern.compile(":\\?\\w+");
+
+    /**
+     * Compiles the given SQL command.
+     *
+     * @param sql the content of the template file joined into a single line.
+     * @return the compiled template.
+     */
+    public static SqlTemplate compile(String sql) {
+        var parameters = pattern.matcher(sql).results()
+                .map(MatchResult::group)
+                .map(s -> s.substring(2))// trims the first two characters ":?"
+                .toList();
+        var preparedStatementSql = pattern.matcher(sql).replaceAll("?");
+        return new SqlTemplate(sql, preparedStatementSql, parameters, new ParameterBinder(preparedStatementSql, parameters));
+    }
+}
@@ -1,28 +1,27 @@
 package io.crunch.template;
 
 import jakarta.enterprise.context.ApplicationScoped;
-import org.apache.camel.Expression;
-import org.apache.camel.builder.RouteBuilder;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystemNotFoundException;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.MatchResult;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * A service for managing and processing templates stored in a configurable folder.
- * This class provides methods to read SQL template files, extract placeholders, and generate
- * expressions for use in Apache Camel routes.
+ * This class provides methods to read SQL template files, extract placeholders, and bind
+ * placeholder values to JDBC prepared statements.
+ *
+ * <p>Every template file is read and compiled into a {@link SqlTemplate} only once, on its first use
+ * (the routes resolve their templates while being configured at startup), and then served from a cache keyed by
+ * the year and the template file name. The routes bind their templates once, so a template file changed while
+ * the application runs takes effect at the next start.</p>
  */
 @ApplicationScoped
 public class SqlTemplates {
@@ -30,11 +29,8 @@ public class SqlTemplates {
     /** The name of the folder containing the templates. */
     private final String templateFolder;
 
-    /**
-     * A regular expression pattern for matching placeholders in templates.
-     * Placeholders are expected to follow the format {@code :?placeholder}.
-     */
-    private static final Pattern pattern = Pattern.compile(":\\?\\w+");
+    /** The compiled templates by year and template file name. */
+    private final Map<TemplateKey, SqlTemplate> templates = new ConcurrentHashMap<>();
 
     /**
      * Constructs the {@link SqlTemplates} service and initializes the template folder path.
@@ -45,6 +41,25 @@ public class SqlTemplates {
         this.templateFolder = templateFolder;
     }
 
+    /**
+     * Returns the compiled form of the specified template file, reading and compiling it on the first call.
+     *
+     * @param year          the year to contextualize the template (currently only part of the cache key).
+     * @param templateFile  the name of the template file.
+     * @return the compiled template.
+     * @throws IOException          if an I/O error occurs while reading the file.
+     * @throws URISyntaxException   if the template file's URI is malformed.
+     */
+    public SqlTemplate getTemplate(int year, String templateFile) throws IOException, URISyntaxException {
+        var key = new TemplateKey(year, templateFile);
+        var template = templates.get(key);
+        if (template == null) {
+            template = load(templateFile);
+            templates.put(key, template);
+        }
+        return template;
+    }
+
     /**
      * Reads the specified template file and returns its content as a single concatenated string.
      *
@@ -55,71 +70,87 @@ public class SqlTemplates {
      * @throws URISyntaxException   if the template file's URI is malformed.
      */
     public String getSqlTemplate(int year, String templateFile) throws IOException, URISyntaxException {
-        var path = getTemplatePath(templateFile);
-        try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
-            return lines.collect(Collectors.joining(" "));
-        }
+        return getTemplate(year, templateFile).sql();
     }
 
     /**
-     * Generates a map of JDBC parameter expressions for placeholders found in the specified template file.
-     * The expressions are compatible with Apache Camel's simple language.
+     * Returns the content of the specified template file where every named placeholder is replaced by a positional
+     * {@code ?} placeholder, so the command can be used as a JDBC {@link java.sql.PreparedStatement}.
+     *
+     * @param year          the year to contextualize the template (currently unused in this method).
+     * @param templateFile  the name of the template file to read.
+     * @return the SQL command with positional placeholders.
+     * @throws IOException          if an I/O error occurs while reading the file.
+     * @throws URISyntaxException   if the template file's URI is malformed.
+     */
+    public String getPreparedStatementTemplate(int year, String templateFile) throws IOException, URISyntaxException {
+        return getTemplate(year, templateFile).preparedStatementSql();
+    }
+
+    /**
+     * Returns the placeholder names of the specified template file in the order they appear in the template.
+     * The position of a name in the list matches the index of the corresponding positional placeholder
+     * in {@link #getPreparedStatementTemplate(int, String)}, starting from zero.
      *
      * @param year          the year to contextualize the template (currently unused in this method).
      * @param templateFile  the name of the template file to process.
-     * @param routeBuilder  the {@link RouteBuilder} used to generate the expressions.
-     * @return a map where the keys are placeholder names (without {@code :?}) and the values are expressions.
+     * @return the ordered list of placeholder names (without {@code :?}).
      * @throws IOException          if an I/O error occurs while reading the file.
      * @throws URISyntaxException   if the template file's URI is malformed.
      */
-    public Map<String, Expression> getJdbcParameterExpressions(int year, String templateFile, RouteBuilder routeBuilder)
-            throws IOException, URISyntaxException {
-        return getParameters(year, templateFile)
-                .collect(Collectors.toMap(
-                    name -> name,
-                    name -> routeBuilder.simple("${body[" + name + "]}")));
+    public List<String> getJdbcParameterNames(int year, String templateFile) throws IOException, URISyntaxException {
+        return getTemplate(year, templateFile).parameters();
     }
 
     /**
-     * Extracts placeholder names from the specified template file.
+     * Returns the binder of the placeholder values of the specified template file to its positional prepared statement.
      *
      * @param year          the year to contextualize the template (currently unused in this method).
      * @param templateFile  the name of the template file to process.
-     * @return a stream of placeholder names (without {@code :?}).
+     * @return the parameter binder of the template.
      * @throws IOException          if an I/O error occurs while reading the file.
      * @throws URISyntaxException   if the template file's URI is malformed.
      */
-    private Stream<String> getParameters(int year, String templateFile) throws IOException, URISyntaxException {
-        var matcher = pattern.matcher(getSqlTemplate(year, templateFile));
-        return matcher.results()
-                .map(MatchResult::group)
-                .map(s -> s.substring(2));// trims the first two characters ":?"
+    public ParameterBinder getParameterBinder(int year, String templateFile) throws IOException, URISyntaxException {
+        return getTemplate(year, templateFile).binder();
     }
 
     /**
-     * Resolves the file system path to the specified template file.
-     * Supports both local file systems and files inside JAR archives.
+     * Reads and compiles the specified template file.
      *
-     * @param templateFile  the name of the template file.
-     * @return the {@link Path} to the template file.
-     * @throws IOException          if an I/O error occurs while resolving the path.
-     * @throws URISyntaxException   if the resource's URI is malformed.
+     * <p>In a native image the packaged templates have been compiled when the image was built. Otherwise, a template
+     * packaged in the application JAR is read from the class path, and any other from the file system, either from
+     * the class path folder of the application, or relative to the working directory.</p>
+     *
+     * @param templateFile  the name of the template file to read.
+     * @return the compiled template.
+     * @throws IOException          if an I/O error occurs while reading the file.
+     * @throws URISyntaxException   if the template file's URI is malformed.
      */
-    private Path getTemplatePath(String templateFile) throws URISyntaxException, IOException {
-        var resourcePath = '/' + templateFolder + '/' + templateFile;
-        var url = getClass().getResource(resourcePath);
-        if (url != null) {
-            var uri = url.toURI();
-            if ("jar".equals(uri.getScheme())) {
-                FileSystem fileSystem;
-                try {
-                    fileSystem = FileSystems.getFileSystem(uri);
-                } catch (FileSystemNotFoundException e) {
-                    fileSystem = FileSystems.newFileSystem(uri, Map.of());
-                }
-                return fileSystem.getPath(resourcePath);
+    private SqlTemplate load(String templateFile) throws IOException, URISyntaxException {
+        var packaged = PackagedTemplates.get(templateFolder, templateFile);
+        if (packaged != null) {
+            return packaged;
+        }
+        var url = getClass().getResource('/' + templateFolder + '/' + templateFile);
+        if (url != null && !"file".equals(url.getProtocol())) {
+            // Templates packaged in the JAR are read from the class path without opening the JAR as a file system
+            try (var in = url.openStream()) {
+                return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
             }
         }
-        return Path.of(templateFolder, templateFile).toAbsolutePath();
+        var path = url != null ? Path.of(url.toURI()) : Path.of(templateFolder, templateFile).toAbsolutePath();
+        return compile(Files.readString(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compiles the content of a template file, joining its lines with spaces.
+     */
+    static SqlTemplate compile(String content) {
+        return SqlTemplate.compile(content.lines().collect(Collectors.joining(" ")));
+    }
+
+    /** The cache key of a compiled template. */
+    private record TemplateKey(int year, String templateFile) {
     }
 }
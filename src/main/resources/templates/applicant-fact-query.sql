@@ -0,0 +1,7 @@
+SELECT a.id, a.u_id, a.d_id, a.app_id as applicant_id, a.email, a.first_name, a.last_name, a.birth_date,
+ a.phone_number, a.creation_time
+ FROM APPLICANT a WHERE a.id > :?lastId AND a.id <= :?upperId
+ AND (CAST(:?createdAfter AS timestamp) IS NULL OR a.creation_time > :?createdAfter
+  OR (a.creation_time = :?createdAfter AND a.id > :?createdAfterId))
+ ORDER BY a.id
+ LIMIT :?pageSize
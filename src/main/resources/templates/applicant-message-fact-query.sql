@@ -0,0 +1,8 @@
+SELECT m.id, m.a_id, a.u_id, a.d_id, m.subject, m.text_msg,
+       m.read_time, m.creation_time
+FROM APPLICANT_MESSAGE m, APPLICANT a
+WHERE a.id = m.a_id AND m.id > :?lastId AND m.id <= :?upperId
+  AND (CAST(:?createdAfter AS timestamp) IS NULL OR m.creation_time > :?createdAfter
+    OR (m.creation_time = :?createdAfter AND m.id > :?createdAfterId))
+ORDER BY m.id
+LIMIT :?pageSize
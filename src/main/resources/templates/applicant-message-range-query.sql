@@ -0,0 +1,4 @@
+SELECT min(m.id) min_id, max(m.id) max_id
+FROM APPLICANT_MESSAGE m
+WHERE CAST(:?createdAfter AS timestamp) IS NULL OR m.creation_time > :?createdAfter
+  OR (m.creation_time = :?createdAfter AND m.id > :?createdAfterId)
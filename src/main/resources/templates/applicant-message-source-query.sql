@@ -1,6 +1,8 @@
 SELECT m.id, m.a_id, a.app_id, d.code d_code, u.code u_code, m.subject, m.text_msg,
        m.read_time, m.creation_time
 FROM APPLICANT_MESSAGE m, APPLICANT a, UNIVERSITY u, DEPARTMENT d
-WHERE a.id = m.a_id AND a.u_id = u.id AND a.d_id = d.id
+WHERE a.id = m.a_id AND a.u_id = u.id AND a.d_id = d.id AND m.id > :?lastId AND m.id <= :?upperId
+  AND (CAST(:?createdAfter AS timestamp) IS NULL OR m.creation_time > :?createdAfter
+    OR (m.creation_time = :?createdAfter AND m.id > :?createdAfterId))
 ORDER BY m.id
-LIMIT 10000 OFFSET 0
+LIMIT :?pageSize
@@ -0,0 +1,4 @@
+SELECT min(a.id) min_id, max(a.id) max_id
+ FROM APPLICANT a
+ WHERE CAST(:?createdAfter AS timestamp) IS NULL OR a.creation_time > :?createdAfter
+  OR (a.creation_time = :?createdAfter AND a.id > :?createdAfterId)
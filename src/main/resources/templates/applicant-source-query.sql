@@ -1,4 +1,7 @@
 SELECT a.id, d.code d_code, u.code u_code, a.app_id as applicant_id, a.email, a.first_name, a.last_name, a.birth_date,
  a.phone_number, a.creation_time
- FROM APPLICANT a, UNIVERSITY u, DEPARTMENT d WHERE a.u_id = u.id AND a.d_id = d.id
+ FROM APPLICANT a, UNIVERSITY u, DEPARTMENT d WHERE a.u_id = u.id AND a.d_id = d.id AND a.id > :?lastId AND a.id <= :?upperId
+ AND (CAST(:?createdAfter AS timestamp) IS NULL OR a.creation_time > :?createdAfter
+  OR (a.creation_time = :?createdAfter AND a.id > :?createdAfterId))
  ORDER BY a.id
+ LIMIT :?pageSize
@@ -0,0 +1,2 @@
+SELECT d.id, d.code
+FROM DEPARTMENT d
@@ -0,0 +1,2 @@
+SELECT u.id, u.code
+FROM UNIVERSITY u
@@ -5,6 +5,7 @@ import org.eclipse.microprofile.config.ConfigProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.BindMode;
+import org.testcontainers.containers.Network;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.containers.output.Slf4jLogConsumer;
 import org.testcontainers.containers.wait.strategy.Wait;
@@ -24,6 +25,12 @@ import java.util.Map;
  */
 public class PostgresSourceDatabaseTestResource implements QuarkusTestResourceLifecycleManager {
 
+    /**
+     * The host name of the source container on the shared network of the test containers, which the target database
+     * reads the source tables from in the server-side archiving tests.
+     */
+    public static final String NETWORK_ALIAS = "source-db";
+
     private static final Logger logger = LoggerFactory.getLogger(PostgresSourceDatabaseTestResource.class);
 
     private final PostgreSQLContainer<?> container;
@@ -39,6 +46,8 @@ public class PostgresSourceDatabaseTestResource implements QuarkusTestResourceLi
             .withDatabaseName(getDbName())
             .withUsername(getDbUser())
             .withPassword(getDbPassword())
+            .withNetwork(Network.SHARED)
+            .withNetworkAliases(NETWORK_ALIAS)
             .withClasspathResourceMapping("init-source-db.sql",
                     "/docker-entrypoint-initdb.d/init-source-db.sql",
                     BindMode.READ_ONLY)
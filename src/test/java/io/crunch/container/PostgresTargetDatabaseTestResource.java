@@ -5,6 +5,7 @@ import org.eclipse.microprofile.config.ConfigProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.BindMode;
+import org.testcontainers.containers.Network;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.containers.output.Slf4jLogConsumer;
 import org.testcontainers.containers.wait.strategy.Wait;
@@ -30,7 +31,7 @@ public class PostgresTargetDatabaseTestResource implements QuarkusTestResourceLi
 
     /**
      * Constructs a new {@link PostgresTargetDatabaseTestResource} and initializes the PostgreSQL container.
-     * The container is configured using values from the application configuration and a custom SQL script.
+     * The container is configured using values from the application configuration and custom SQL scripts.
      */
     public PostgresTargetDatabaseTestResource() {
         var dockerImageName = DockerImageName.parse("postgres").withTag("15.0");
@@ -39,9 +40,14 @@ public class PostgresTargetDatabaseTestResource implements QuarkusTestResourceLi
                 .withDatabaseName(getDbName())
                 .withUsername(getDbUser())
                 .withPassword(getDbPassword())
+                .withNetwork(Network.SHARED)
                 .withClasspathResourceMapping("init-target-db.sql",
                         "/docker-entrypoint-initdb.d/init-source-db.sql",
                         BindMode.READ_ONLY)
+                // Attaches the source database as a foreign schema, for the server-side archiving tests
+                .withClasspathResourceMapping("init-target-fdw.sql",
+                        "/docker-entrypoint-initdb.d/init-target-fdw.sql",
+                        BindMode.READ_ONLY)
                 .withLogConsumer(new Slf4jLogConsumer(logger)).waitingFor(Wait.forListeningPort());
     }
 
@@ -0,0 +1,91 @@
+package io.crunch.load;
+
+import io.crunch.template.InsertStatement;
+import io.crunch.template.SqlTemplate;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvFileLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void chunksAreArchivedIntoRolledCompressedFiles() throws Exception {
+        var insert = InsertStatement.parse(SqlTemplate.compile("INSERT INTO APPLICANT (id, year, email) VALUES (:?id, :?year, :?email)"));
+        var loader = new CsvFileLoader(insert, List.of("year"));
+        // Every chunk exceeds the maximum size, so every chunk after the first one starts a new file.
+        try (var sink = new CsvFileSink(directory, insert.table(), 2024, insert.columns(), 1)) {
+            var exchange = new DefaultExchange(new DefaultCamelContext());
+            exchange.setProperty(CsvFileSink.PROPERTY, sink);
+            exchange.setProperty(ConstantColumns.PROPERTY, Map.of("year", 2024));
+            for (long id = 1; id <= 3; id++) {
+                exchange.getIn().setBody(List.of(Map.of("id", id, "email", "a" + id + "@b.c")));
+                loader.process(exchange);
+            }
+            assertThat(sink.getRows()).isEqualTo(3);
+            assertThat(sink.getFiles()).isEqualTo(3);
+        }
+
+        assertThat(read("applicant-2024-00001.csv.gz")).isEqualTo("id,year,email\n1,2024,\"a1@b.c\"\n");
+        assertThat(read("applicant-2024-00003.csv.gz")).isEqualTo("id,year,email\n3,2024,\"a3@b.c\"\n");
+
+        // A new run continues the numbering of the files already archived.
+        try (var sink = new CsvFileSink(directory, insert.table(), 2024, insert.columns(), 1)) {
+            sink.write("4,2024,\n".getBytes(StandardCharsets.UTF_8), 1);
+        }
+        assertThat(read("applicant-2024-00004.csv.gz")).isEqualTo("id,year,email\n4,2024,\n");
+    }
+
+    @Test
+    void filesAreRolledWhenTheirCompressedSizeReachesTheMaximumSize() throws Exception {
+        int maxFileSize = 4096;
+        var random = new Random(42);
+        var expected = new StringBuilder();
+        try (var sink = new CsvFileSink(directory, "APPLICANT", 2024, List.of("id", "email"), maxFileSize)) {
+            for (int chunk = 0; chunk < 40; chunk++) {
+                var records = new StringBuilder();
+                for (int i = 0; i < 20; i++) {
+                    records.append(chunk * 20 + i).append(',')
+                        .append(Long.toHexString(random.nextLong())).append(Long.toHexString(random.nextLong())).append('\n');
+                }
+                expected.append(records);
+                sink.write(records.toString().getBytes(StandardCharsets.UTF_8), 20);
+            }
+            assertThat(sink.getFiles()).isGreaterThan(2);
+        }
+
+        var actual = new StringBuilder();
+        try (var files = Files.list(directory)) {
+            var names = files.map(file -> file.getFileName().toString()).sorted().toList();
+            for (var name : names) {
+                var size = Files.size(directory.resolve(name));
+                if (!name.equals(names.getLast())) {
+                    // A file is rolled after the chunk that makes it reach the maximum size, a chunk compresses to about 500 bytes.
+                    assertThat(size).isBetween((long) maxFileSize, maxFileSize + 1024L);
+                }
+                actual.append(read(name).substring("id,email\n".length()));
+            }
+        }
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    private String read(String fileName) throws IOException {
+        try (var in = new GZIPInputStream(Files.newInputStream(directory.resolve(fileName)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.crunch.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCacheTest {
+
+    @Test
+    void statementsArePreparedOncePerSqlAndClosedWithTheCache() throws Exception {
+        var calls = new ArrayList<String>();
+        var connection = connection(calls);
+        var stats = new StatementCacheStats();
+
+        try (var cache = new StatementCache(stats)) {
+            var insert = cache.prepare(connection, "INSERT INTO a VALUES (?)");
+            assertThat(cache.prepare(connection, "INSERT INTO a VALUES (?)")).isSameAs(insert);
+            assertThat(cache.prepare(connection, "INSERT INTO b VALUES (?)")).isNotSameAs(insert);
+            assertThat(cache.prepare(connection, "INSERT INTO a VALUES (?)")).isSameAs(insert);
+        }
+
+        assertThat(stats.getMisses()).isEqualTo(2);
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(calls).containsExactly(
+            "prepareStatement", "clearBatch", "prepareStatement", "clearBatch", "close", "close");
+    }
+
+    /**
+     * Returns a connection preparing statements that record the calls of the cache.
+     */
+    private static Connection connection(List<String> calls) {
+        return (Connection) Proxy.newProxyInstance(StatementCacheTest.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if (!method.getName().equals("prepareStatement")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                calls.add(method.getName());
+                return Proxy.newProxyInstance(StatementCacheTest.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (statement, statementMethod, statementArgs) -> {
+                        calls.add(statementMethod.getName());
+                        return null;
+                    });
+            });
+    }
+}
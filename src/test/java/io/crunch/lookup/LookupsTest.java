@@ -0,0 +1,59 @@
+package io.crunch.lookup;
+
+import io.crunch.row.RowSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.tuple;
+
+class LookupsTest {
+
+    @Test
+    void lookupTableFindsTheValuesOfUnorderedIds() {
+        var table = LookupTable.of(new long[]{5, 1, 3}, new Object[]{"EE", "MIT", "ARCH"});
+
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(table.get(1)).isEqualTo("MIT");
+        assertThat(table.get(3)).isEqualTo("ARCH");
+        assertThat(table.get(5)).isEqualTo("EE");
+        assertThat(table.get(2)).isNull();
+        assertThatIllegalArgumentException().isThrownBy(() -> LookupTable.of(new long[]{1, 1}, new Object[]{"a", "b"}));
+    }
+
+    @Test
+    void lookupsEnrichTypedRowsAndMapsAlike() {
+        var lookups = new Lookups(
+            List.of(new Lookup("u_id", "u_code", "university-lookup.sql"), new Lookup("d_id", "d_code", "department-lookup.sql")),
+            List.of(LookupTable.of(new long[]{1, 2}, new Object[]{"MIT", "TUM"}), LookupTable.of(new long[]{4}, new Object[]{"CS"})));
+        var row = RowSchema.of(List.of("id", "u_id", "d_id"), List.of("u_code", "d_code")).newRow();
+        row.putAll(Map.of("id", 15L, "u_id", 2L, "d_id", 4L));
+        var map = new HashMap<String, Object>(Map.of("id", 16L, "u_id", 1L, "d_id", 4L));
+
+        var rows = List.<Map<String, Object>>of(row, map);
+        assertThat(lookups.enrich(rows)).isSameAs(rows);
+        assertThat(row).containsEntry("u_code", "TUM").containsEntry("d_code", "CS");
+        assertThat(map).containsEntry("u_code", "MIT").containsEntry("d_code", "CS");
+    }
+
+    @Test
+    void lookupsLeaveOutRowsWithUnresolvedKeys() {
+        var lookups = new Lookups(
+            List.of(new Lookup("u_id", "u_code", "university-lookup.sql"), new Lookup("d_id", "d_code", "department-lookup.sql")),
+            List.of(LookupTable.of(new long[]{1, 2}, new Object[]{"MIT", "TUM"}), LookupTable.of(new long[]{4}, new Object[]{"CS"})));
+        var rows = List.<Map<String, Object>>of(
+            new HashMap<>(Map.of("id", 15L, "u_id", 2L, "d_id", 4L)),
+            new HashMap<>(Map.of("id", 16L, "u_id", 1L, "d_id", 9L)),
+            new HashMap<>(Map.of("id", 17L, "u_id", 3L, "d_id", 4L)),
+            new HashMap<>(Map.of("id", 18L, "d_id", 4L)),
+            new HashMap<>(Map.of("id", 19L, "u_id", 1L, "d_id", 4L)));
+
+        assertThat(lookups.enrich(rows))
+            .extracting(row -> row.get("id"), row -> row.get("u_code"), row -> row.get("d_code"))
+            .containsExactly(tuple(15L, "TUM", "CS"), tuple(19L, "MIT", "CS"));
+    }
+}
@@ -0,0 +1,28 @@
+package io.crunch.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveMetricsTest {
+
+    @Test
+    void rowsLeftOutByTheTransformationAreCountedAsDropped() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        var transform = new ArchiveMetrics(registry).transform("applicant-route",
+            exchange -> exchange.getIn().setBody(exchange.getIn().getBody(List.class).subList(0, 2)));
+        var exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setBody(List.of(1, 2, 3));
+
+        transform.process(exchange);
+
+        assertThat(registry.counter("archive.rows", "route", "applicant-route", "stage", "extracted").count()).isEqualTo(3);
+        assertThat(registry.counter("archive.rows", "route", "applicant-route", "stage", "transformed").count()).isEqualTo(2);
+        assertThat(registry.counter("archive.rows", "route", "applicant-route", "stage", "dropped").count()).isEqualTo(1);
+    }
+}
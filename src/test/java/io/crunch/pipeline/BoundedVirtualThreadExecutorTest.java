@@ -0,0 +1,34 @@
+package io.crunch.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    void tasksRunOnVirtualThreadsWithinThePermits() throws Exception {
+        var executor = new BoundedVirtualThreadExecutor("test", 3);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var tasks = new ArrayList<Future<Boolean>>();
+        for (int i = 0; i < 30; i++) {
+            tasks.add(executor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                running.decrementAndGet();
+                return Thread.currentThread().isVirtual();
+            }));
+        }
+        for (var task : tasks) {
+            assertThat(task.get()).isTrue();
+        }
+        executor.shutdown();
+
+        assertThat(maxRunning.get()).isBetween(1, 3);
+    }
+}
@@ -0,0 +1,71 @@
+package io.crunch.pipeline;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class ChunkPipelineTest {
+
+    private final ExecutorService transformers = Executors.newFixedThreadPool(4);
+
+    private final ExecutorService writers = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        transformers.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    @Test
+    void chunksAreLoadedInOrderAfterConcurrentTransformation() throws Exception {
+        var loaded = Collections.synchronizedList(new ArrayList<Map<String, Object>>());
+        var pipeline = new ChunkPipeline(
+            exchange -> exchange.getIn().setBody(rowsOf(exchange).stream()
+                .map(row -> Map.<String, Object>of("id", row.get("id"), "code", "C" + row.get("id")))
+                .toList()),
+            exchange -> loaded.addAll(rowsOf(exchange)),
+            transformers, writers, 2);
+
+        pipeline.process(exchangeOf(100));
+
+        assertThat(loaded).isEqualTo(IntStream.range(0, 100).mapToObj(i -> Map.<String, Object>of("id", (long) i, "code", "C" + i)).toList());
+    }
+
+    @Test
+    void failureOfTheWriterStopsTheReader() {
+        var read = Collections.synchronizedList(new ArrayList<Map<String, Object>>());
+        var pipeline = new ChunkPipeline(exchange -> read.addAll(rowsOf(exchange)),
+            exchange -> {
+                throw new IllegalStateException("Load failed");
+            },
+            transformers, writers, 2);
+
+        assertThatIllegalStateException().isThrownBy(() -> pipeline.process(exchangeOf(1000))).withMessage("Load failed");
+        assertThat(read).hasSizeLessThan(1000);
+    }
+
+    private static DefaultExchange exchangeOf(int rows) {
+        var exchange = new DefaultExchange(new DefaultCamelContext());
+        var chunks = IntStream.range(0, rows).mapToObj(i -> List.<Map<String, Object>>of(Map.of("id", (long) i))).iterator();
+        exchange.getIn().setBody(chunks);
+        return exchange;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rowsOf(Exchange exchange) {
+        return exchange.getIn().getBody(List.class);
+    }
+}
@@ -0,0 +1,64 @@
+package io.crunch.route;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.apache.camel.model.RouteDefinition;
+import org.awaitility.Durations;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@QuarkusTest
+@TestProfile(ArchiveOrchestratorTest.ArchiveAllProfile.class)
+class ArchiveOrchestratorTest extends BaseRouteTest {
+
+    @Inject
+    ArchiveOrchestrator archiveOrchestrator;
+
+    @Inject
+    ApplicantMessageRoute applicantMessageRoute;
+
+    @Test
+    void whenArchiveAllIsCalledApplicantsAndMessagesAreTransformedToTarget() throws SQLException {
+        assertThat(archiveOrchestrator.getRouteCollection().getRoutes()
+            .stream()
+            .map(RouteDefinition::getEndpointUrl)
+            .anyMatch(url -> url.equals("timer://archive-all?delay=-1&repeatCount=1"))).isTrue();
+        assertThat(applicantMessageRoute.getRouteCollection().getRoutes()
+            .stream()
+            .map(RouteDefinition::getEndpointUrl)
+            .anyMatch(url -> url.equals("direct:load-applicant-message"))).isTrue();
+
+        var applicantSourceQuery = "SELECT count(a.id) FROM APPLICANT a, UNIVERSITY u WHERE a.u_id = u.id";
+        var messageSourceQuery = "SELECT count(m.id) FROM APPLICANT_MESSAGE m, APPLICANT a, UNIVERSITY u WHERE a.id = m.a_id AND a.u_id = u.id";
+        var applicantTargetQuery = "SELECT count(id) FROM APPLICANT where year = " + getYear();
+        var messageTargetQuery = "SELECT count(id) FROM APPLICANT_MESSAGE where year = " + getYear();
+        var numberOfApplicants = getQueryRowCount(applicantSourceQuery, sourceDatasource);
+        var numberOfMessages = getQueryRowCount(messageSourceQuery, sourceDatasource);
+        assertThat(numberOfApplicants).isPositive();
+        assertThat(numberOfMessages).isPositive();
+        await()
+            .atMost(Durations.ONE_MINUTE)
+            .pollInterval(Durations.ONE_SECOND)
+            .untilAsserted(() -> {
+                assertThat(getQueryRowCount(applicantTargetQuery, targetDatasource)).isEqualTo(numberOfApplicants);
+                assertThat(getQueryRowCount(messageTargetQuery, targetDatasource)).isEqualTo(numberOfMessages);
+            });
+    }
+
+    public static class ArchiveAllProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "app.archive.command", "archive-all",
+                "app.archive.year", getYear());
+        }
+    }
+}
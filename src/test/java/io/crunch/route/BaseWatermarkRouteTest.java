@@ -0,0 +1,64 @@
+package io.crunch.route;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.inject.Inject;
+import org.apache.camel.ProducerTemplate;
+import org.awaitility.Durations;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests that an incremental run only archives the source rows after the watermark of the rows already archived.
+ *
+ * <p>The route is started by the {@code archive-all} command, so that it can be run again by its {@code direct}
+ * endpoint. The second run is in {@code insert} load mode, so an already archived row extracted again would fail
+ * on the unique constraint of the target table.</p>
+ */
+abstract class BaseWatermarkRouteTest extends BaseRouteTest {
+
+    private static final String ARCHIVED = "2000-01-01";
+
+    @Inject
+    ProducerTemplate producerTemplate;
+
+    @Test
+    void whenRunIsIncrementalOnlyNewApplicantsAreArchived() throws SQLException {
+        var sourceQuery = "SELECT count(a.id) FROM APPLICANT a, UNIVERSITY u WHERE a.u_id = u.id";
+        var targetQuery = "SELECT count(id) FROM APPLICANT where year = " + getYear();
+        var numberOfApplicants = getQueryRowCount(sourceQuery, sourceDatasource);
+        assertThat(numberOfApplicants).isPositive();
+        await()
+            .atMost(Durations.ONE_MINUTE)
+            .pollInterval(Durations.ONE_SECOND)
+            .untilAsserted(() -> assertThat(getQueryRowCount(targetQuery, targetDatasource)).isEqualTo(numberOfApplicants));
+        execute("UPDATE APPLICANT SET archiving_time = '" + ARCHIVED + "' WHERE year = " + getYear(), targetDatasource);
+
+        // A late applicant created at the same time as the latest one, with a greater id, and a newer applicant.
+        execute("""
+            INSERT INTO APPLICANT (id, u_id, d_id, app_id, email, first_name, last_name, birth_date, phone_number, creation_time)
+            SELECT id + 1000, u_id, d_id, 'L' || id, email, first_name, last_name, birth_date, phone_number, creation_time
+            FROM APPLICANT WHERE id = (SELECT max(id) FROM APPLICANT)""", sourceDatasource);
+        execute("""
+            INSERT INTO APPLICANT (id, u_id, d_id, app_id, email, first_name, last_name, birth_date, phone_number, creation_time)
+            SELECT id + 1, u_id, d_id, 'N' || id, email, first_name, last_name, birth_date, phone_number, creation_time + interval '1 second'
+            FROM APPLICANT WHERE id = (SELECT max(id) FROM APPLICANT)""", sourceDatasource);
+        producerTemplate.sendBody("direct:load-applicant", (Object) null);
+
+        assertThat(getQueryRowCount(targetQuery, targetDatasource)).isEqualTo(numberOfApplicants + 2);
+        assertThat(getQueryRowCount("SELECT count(*) FROM APPLICANT WHERE archiving_time = '" + ARCHIVED + "'", targetDatasource))
+            .isEqualTo(numberOfApplicants);
+        assertThat(getQueryRowCount("SELECT count(*) FROM APPLICANT WHERE applicant_id LIKE 'L%' OR applicant_id LIKE 'N%'", targetDatasource))
+            .isEqualTo(2);
+    }
+
+    void execute(String sql, AgroalDataSource dataSource) throws SQLException {
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.crunch.route;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.awaitility.Durations;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests that the partitions are recorded as complete when every connection of the target pool is held by a partition.
+ */
+@QuarkusTest
+@TestProfile(CheckpointPoolRouteTest.CheckpointPoolProfile.class)
+class CheckpointPoolRouteTest extends BaseRouteTest {
+
+    @Test
+    void whenPartitionsHoldTheWholePoolEveryPartitionIsCompleted() throws SQLException {
+        var sourceQuery = "SELECT count(a.id) FROM APPLICANT a, UNIVERSITY u WHERE a.u_id = u.id";
+        var targetQuery = "SELECT count(id) FROM APPLICANT where year = " + getYear();
+        var completedQuery = "SELECT count(*) FROM archive_checkpoint WHERE last_id = range_end AND year = " + getYear();
+        var numberOfApplicants = getQueryRowCount(sourceQuery, sourceDatasource);
+        assertThat(numberOfApplicants).isPositive();
+        await()
+            .atMost(Durations.ONE_MINUTE)
+            .pollInterval(Durations.ONE_SECOND)
+            .untilAsserted(() -> {
+                assertThat(getQueryRowCount(targetQuery, targetDatasource)).isEqualTo(numberOfApplicants);
+                assertThat(getQueryRowCount(completedQuery, targetDatasource)).isEqualTo(2);
+            });
+    }
+
+    public static class CheckpointPoolProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "app.archive.command", "load-applicant",
+                "app.archive.year", getYear(),
+                "app.archive.checkpoint.enabled", "true",
+                "app.archive.partitions", "2",
+                "quarkus.datasource.target.jdbc.max-size", "2");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.crunch.route;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.apache.camel.ProducerTemplate;
+import org.awaitility.Durations;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatException;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests that an interrupted run is resumed from its checkpoints.
+ *
+ * <p>The route is started by the {@code archive-all} command, so that it can be run again by its {@code direct}
+ * endpoint. The run is interrupted by a row already in the target table, which fails the chunk holding its id
+ * on the unique constraint of the table, while every chunk is committed with its checkpoint.</p>
+ */
+@QuarkusTest
+@TestProfile(CheckpointResumeRouteTest.CheckpointResumeProfile.class)
+class CheckpointResumeRouteTest extends BaseRouteTest {
+
+    @Inject
+    ProducerTemplate producerTemplate;
+
+    @Test
+    void whenInterruptedRunIsResumedEveryApplicantIsArchivedOnce() throws SQLException {
+        var sourceQuery = "SELECT count(a.id) FROM APPLICANT a, UNIVERSITY u WHERE a.u_id = u.id";
+        var targetQuery = "SELECT count(DISTINCT id) FROM APPLICANT where year = " + getYear();
+        var unfinishedQuery = "SELECT count(*) FROM archive_checkpoint WHERE last_id < range_end";
+        var numberOfApplicants = getQueryRowCount(sourceQuery, sourceDatasource);
+        assertThat(numberOfApplicants).isPositive();
+        // The run started with the application archives every applicant and completes every partition.
+        await()
+            .atMost(Durations.TEN_SECONDS)
+            .pollInterval(Durations.ONE_SECOND)
+            .untilAsserted(() -> {
+                assertThat(getQueryRowCount(targetQuery, targetDatasource)).isEqualTo(numberOfApplicants);
+                assertThat(getQueryRowCount(unfinishedQuery, targetDatasource)).isZero();
+            });
+
+        execute("DELETE FROM APPLICANT");
+        execute("DELETE FROM archive_checkpoint");
+        execute("INSERT INTO APPLICANT (id, year) VALUES (25, " + getYear() + ")");
+        assertThatException().isThrownBy(() -> producerTemplate.sendBody("direct:load-applicant", (Object) null));
+        // The applicants before the failed one have been committed with their checkpoint.
+        assertThat(getQueryRowCount("SELECT count(*) FROM APPLICANT WHERE id < 25", targetDatasource)).isEqualTo(3);
+        assertThat(getQueryRowCount("SELECT max(last_id) FROM archive_checkpoint WHERE range_end < 73", targetDatasource)).isEqualTo(22);
+
+        execute("DELETE FROM APPLICANT WHERE id = 25");
+        producerTemplate.sendBody("direct:load-applicant", (Object) null);
+        // A loaded applicant would fail on the unique constraint if it was loaded again.
+        assertThat(getQueryRowCount(targetQuery, targetDatasource)).isEqualTo(numberOfApplicants);
+        assertThat(getQueryRowCount(unfinishedQuery, targetDatasource)).isZero();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (var connection = targetDatasource.getConnection();
+             var statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    public static class CheckpointResumeProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "app.archive.command", "archive-all",
+                "app.archive.all.stages", "load-applicant",
+                "app.archive.year", getYear(),
+                "app.archive.checkpoint.resume", "true",
+                "app.archive.partitions", "2",
+                "app.archive.batch-size", "1",
+                "app.archive.commit-interval", "1");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.crunch.route;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+@QuarkusTest
+@TestProfile(IdWatermarkRouteTest.IdWatermarkProfile.class)
+class IdWatermarkRouteTest extends BaseWatermarkRouteTest {
+
+    public static class IdWatermarkProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "app.archive.command", "archive-all",
+                "app.archive.all.stages", "load-applicant",
+                "app.archive.year", getYear(),
+                "app.archive.delta.watermark", "id");
+        }
+    }
+}
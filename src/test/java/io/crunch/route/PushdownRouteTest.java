@@ -0,0 +1,46 @@
+package io.crunch.route;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.awaitility.Durations;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests the server-side archiving, which reads the source tables through the {@code source} foreign schema
+ * created in the target database by {@code init-target-fdw.sql}.
+ */
+@QuarkusTest
+@TestProfile(PushdownRouteTest.PushdownProfile.class)
+class PushdownRouteTest extends BaseRouteTest {
+
+    @Test
+    void whenMessagesArePushedDownMessagesAreTransformedToTarget() throws SQLException {
+        var sourceQuery = "SELECT count(m.id) FROM APPLICANT_MESSAGE m, APPLICANT a, UNIVERSITY u WHERE a.id = m.a_id AND a.u_id = u.id";
+        var targetQuery = "SELECT count(id) FROM APPLICANT_MESSAGE where year = " + getYear() + " AND app_year = " + getYear();
+        var numberOfMessages = getQueryRowCount(sourceQuery, sourceDatasource);
+        assertThat(numberOfMessages).isPositive();
+        await()
+            .atMost(Durations.ONE_MINUTE)
+            .pollInterval(Durations.ONE_SECOND)
+            .untilAsserted(() -> assertThat(getQueryRowCount(targetQuery, targetDatasource)).isEqualTo(numberOfMessages));
+    }
+
+    public static class PushdownProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "app.archive.command", "load-applicant-message",
+                "app.archive.year", getYear(),
+                "app.archive.pushdown.enabled", "true",
+                "app.archive.pushdown.source-schema", "source");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.crunch.route;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.apache.camel.ProducerTemplate;
+import org.awaitility.Durations;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests that the archive of a year is run again in {@code upsert} load mode, updating the archived rows.
+ *
+ * <p>The route is started by the {@code archive-all} command, so that it can be run again by its {@code direct}
+ * endpoint.</p>
+ */
+@QuarkusTest
+@TestProfile(UpsertRouteTest.UpsertProfile.class)
+class UpsertRouteTest extends BaseRouteTest {
+
+    @Inject
+    ProducerTemplate producerTemplate;
+
+    @Test
+    void whenYearIsArchivedAgainApplicantsAreUpdated() throws SQLException {
+        var sourceQuery = "SELECT count(a.id) FROM APPLICANT a, UNIVERSITY u WHERE a.u_id = u.id";
+        var targetQuery = "SELECT count(id) FROM APPLICANT where year = " + getYear();
+        var numberOfApplicants = getQueryRowCount(sourceQuery, sourceDatasource);
+        assertThat(numberOfApplicants).isPositive();
+        await()
+            .atMost(Durations.ONE_MINUTE)
+            .pollInterval(Durations.ONE_SECOND)
+            .untilAsserted(() -> assertThat(getQueryRowCount(targetQuery, targetDatasource)).isEqualTo(numberOfApplicants));
+
+        // The archived rows are made stale, as if the source rows had changed since the first run.
+        execute("UPDATE APPLICANT SET email = 'stale', archiving_time = '2000-01-01' WHERE year = " + getYear());
+        producerTemplate.sendBody("direct:load-applicant", (Object) null);
+
+        // An inserted row would fail on the unique constraint, so every row has been updated in place.
+        assertThat(getQueryRowCount(targetQuery, targetDatasource)).isEqualTo(numberOfApplicants);
+        assertThat(getQueryRowCount("SELECT count(*) FROM APPLICANT WHERE email = 'stale' OR archiving_time = '2000-01-01'", targetDatasource)).isZero();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (var connection = targetDatasource.getConnection();
+             var statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    public static class UpsertProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "app.archive.command", "archive-all",
+                "app.archive.all.stages", "load-applicant",
+                "app.archive.year", getYear(),
+                "app.archive.load-mode", "upsert");
+        }
+    }
+}
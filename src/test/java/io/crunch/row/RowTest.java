@@ -0,0 +1,43 @@
+package io.crunch.row;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RowTest {
+
+    @Test
+    void rowHasResultAndAddedColumnsAndBehavesLikeMap() {
+        var schema = RowSchema.of(List.of("id", "name"), List.of("name", "year"));
+        var row = schema.newRow();
+        row.setValue(0, 1L);
+        row.setValue(1, "a");
+        row.put("year", 2024);
+
+        assertThat(schema.size()).isEqualTo(3);
+        assertThat(schema.getResultColumns()).isEqualTo(2);
+        assertThat(row).isEqualTo(Map.of("id", 1L, "name", "a", "year", 2024));
+        assertThat(row.get("missing")).isNull();
+        assertThatIllegalArgumentException().isThrownBy(() -> row.put("missing", 1));
+    }
+
+    @Test
+    void columnMappingReadsTypedRowsAndMapsAlike() {
+        var schema = RowSchema.of(List.of("id", "name"), List.of("year"));
+        var row = schema.newRow();
+        row.putAll(Map.of("id", 1L, "name", "a", "year", 2024));
+        var mapping = new ColumnMapping(new String[]{"year", "id", "missing"});
+        var values = new Object[mapping.size()];
+
+        mapping.copyValues(row, values);
+        assertThat(values).containsExactly(2024, 1L, null);
+
+        mapping.copyValues(Map.of("id", 2L, "year", 2025), values);
+        assertThat(values).containsExactly(2025, 2L, null);
+        assertThat(mapping.indexesIn(schema)).containsExactly(2, 0, -1);
+    }
+}
@@ -0,0 +1,95 @@
+package io.crunch.template;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+
+class SqlTemplatesTest {
+
+    @TempDir
+    Path templateFolder;
+
+    @Test
+    void templateIsCompiledIntoPositionalStatementAndOrderedParameters() {
+        var template = SqlTemplate.compile("INSERT INTO T (a, b, c) VALUES (:?a, :?b, :?a)");
+
+        assertThat(template.preparedStatementSql()).isEqualTo("INSERT INTO T (a, b, c) VALUES (?, ?, ?)");
+        assertThat(template.parameters()).containsExactly("a", "b", "a");
+        assertThat(template.binder().getSql()).isEqualTo(template.preparedStatementSql());
+    }
+
+    @Test
+    void constantParametersAreBoundSeparatelyFromRowParameters() throws SQLException {
+        var binder = SqlTemplate.compile("INSERT INTO T (a, b, c) VALUES (:?a, :?year, :?c)").binder().withConstants(List.of("year"));
+        var parameters = new HashMap<Integer, Object>();
+        var statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+            (proxy, method, args) -> method.getName().equals("setObject") ? parameters.put((Integer) args[0], args[1]) : null);
+
+        binder.bindConstants(statement, Map.of("year", 2024));
+        assertThat(parameters).containsExactly(entry(2, 2024));
+
+        binder.bind(statement, Map.of("a", 1, "year", 2000, "c", 3));
+        assertThat(parameters).containsOnly(entry(1, 1), entry(2, 2024), entry(3, 3));
+    }
+
+    @Test
+    void packagedTemplatesAreCompiledAndValidated() {
+        var templates = PackagedTemplates.load();
+
+        assertThat(templates).containsKeys("applicant-source-query.sql", "applicant-target-query.sql",
+            "applicant-message-source-query.sql", "applicant-message-target-query.sql");
+        assertThat(templates.get("applicant-target-query.sql").parameters()).isNotEmpty();
+        assertThat(PackagedTemplates.get("other", "applicant-target-query.sql")).isNull();
+    }
+
+    @Test
+    void insertTemplateIsParsedIntoTableColumnsAndPlaceholders() {
+        var insert = InsertStatement.parse(SqlTemplate.compile("INSERT INTO T (a, b) VALUES (:?x, :?y)"));
+
+        assertThat(insert.table()).isEqualTo("T");
+        assertThat(insert.columns()).containsExactly("a", "b");
+        assertThat(insert.placeholders()).containsExactly("x", "y");
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> InsertStatement.parse(SqlTemplate.compile("INSERT INTO T (a, b) VALUES (:?x, now())")));
+    }
+
+    @Test
+    void insertTemplateIsRewrittenIntoUpsert() {
+        var template = SqlTemplate.compile("INSERT INTO T (id, year, a) VALUES (:?id, :?year, :?x)");
+
+        var update = InsertStatement.toUpsert(template, List.of("id", "year"), ConflictAction.UPDATE);
+        assertThat(update.sql()).isEqualTo("INSERT INTO T (id, year, a) VALUES (:?id, :?year, :?x) ON CONFLICT (id, year) DO UPDATE SET a = EXCLUDED.a");
+        assertThat(update.parameters()).containsExactly("id", "year", "x");
+        assertThat(InsertStatement.toUpsert(template, List.of("id"), ConflictAction.NOTHING).sql())
+            .endsWith("VALUES (:?id, :?year, :?x) ON CONFLICT (id) DO NOTHING");
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> InsertStatement.toUpsert(template, List.of("missing"), ConflictAction.NOTHING));
+    }
+
+    @Test
+    void templateIsReadOnce() throws IOException, URISyntaxException {
+        var file = Files.writeString(templateFolder.resolve("query.sql"), "SELECT 1\nFROM T");
+        var templates = new SqlTemplates(templateFolder.toString());
+
+        assertThat(templates.getSqlTemplate(2024, "query.sql")).isEqualTo("SELECT 1 FROM T");
+        assertThat(templates.getTemplate(2024, "query.sql")).isSameAs(templates.getTemplate(2024, "query.sql"));
+
+        Files.writeString(file, "SELECT 2 FROM T");
+
+        assertThat(templates.getSqlTemplate(2024, "query.sql")).isEqualTo("SELECT 1 FROM T");
+    }
+}
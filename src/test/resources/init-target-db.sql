@@ -47,3 +47,6 @@ INSERT INTO university VALUES ('Technical University of Munich', 'TUM', now(), n
 INSERT INTO department VALUES ('Architecture', 'ARCH', now(), now());
 INSERT INTO department VALUES ('Computer Science', 'CS', now(), now());
 INSERT INTO department VALUES ('Electrical Engineering', 'EE', now(), now());
+
+ALTER TABLE applicant ADD CONSTRAINT applicant_id_year UNIQUE (id, year);
+ALTER TABLE applicant_message ADD CONSTRAINT applicant_message_id_year UNIQUE (id, year);
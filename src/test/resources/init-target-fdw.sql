@@ -0,0 +1,45 @@
+-- The source tables as the foreign schema "source" of the target database, read by the server-side archiving tests.
+-- The source container is reached by its network alias on the shared network of the test containers.
+CREATE EXTENSION postgres_fdw;
+
+CREATE SERVER archive_source FOREIGN DATA WRAPPER postgres_fdw OPTIONS (host 'source-db', port '5432', dbname 'app-source');
+
+CREATE USER MAPPING FOR "app-target" SERVER archive_source OPTIONS (user 'app-source', password 'test');
+
+CREATE SCHEMA source;
+
+CREATE FOREIGN TABLE source.university (
+    id bigint,
+    name character varying(255),
+    code character varying(10),
+    creation_time timestamp without time zone
+) SERVER archive_source OPTIONS (schema_name 'public', table_name 'university');
+
+CREATE FOREIGN TABLE source.department (
+    id bigint,
+    name character varying(255),
+    code character varying(10),
+    creation_time timestamp without time zone
+) SERVER archive_source OPTIONS (schema_name 'public', table_name 'department');
+
+CREATE FOREIGN TABLE source.applicant (
+    id bigint,
+    u_id bigint,
+    d_id bigint,
+    app_id character varying(7),
+    email character varying(255),
+    first_name character varying(50),
+    last_name character varying(50),
+    birth_date date,
+    phone_number character varying(25),
+    creation_time timestamp without time zone
+) SERVER archive_source OPTIONS (schema_name 'public', table_name 'applicant');
+
+CREATE FOREIGN TABLE source.applicant_message (
+    id bigint,
+    a_id bigint,
+    subject character varying(255),
+    text_msg character varying(7000),
+    read_time timestamp without time zone,
+    creation_time timestamp without time zone
+) SERVER archive_source OPTIONS (schema_name 'public', table_name 'applicant_message');